@@ -0,0 +1,61 @@
+package benchmarks;
+
+import engine.HeapVariant;
+import engine.SortEngine;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Heap Sort variants against the original recursive heapify on columns that
+// no longer fit in cache. Run on its own with
+// ant bench -Dbench.args="HeapSortBenchmark -jvmArgs -Xmx2g"
+// since the 1e8 size needs about 1.6 GB of heap for the two arrays.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class HeapSortBenchmark {
+
+    @Param({"Recursive", "Iterative", "Bounce", "4-ary", "8-ary"})
+    public String variant;
+
+    @Param({"1000000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"random", "manyDuplicates"})
+    public String distribution;
+
+    private double[] source;
+    private double[] work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SortEngine.setHeapVariant(HeapVariant.fromName(variant));
+        source = SortBenchmark.generate(distribution, size, 42L);
+        work = new double[size];
+    }
+
+    // Single shot: each sort runs long enough that the copy is negligible
+    @Setup(Level.Invocation)
+    public void copy() {
+        System.arraycopy(source, 0, work, 0, size);
+    }
+
+    @Benchmark
+    public double[] sort() {
+        SortEngine.sort(SortEngine.HEAP_SORT, work);
+        return work;
+    }
+}
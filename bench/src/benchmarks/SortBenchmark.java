@@ -0,0 +1,108 @@
+package benchmarks;
+
+import engine.InsertionVariant;
+import engine.SortEngine;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// JMH suite for the SortEngine algorithms. Run through "ant bench"; narrow the
+// matrix with -p, e.g. -p algorithm="Quick Sort" -p size=1000000, since the
+// quadratic algorithms will not finish at the larger sizes.
+//
+// Sorting is destructive, so every invocation first copies the pristine input
+// into a work array. copyOnly measures that copy on its own to subtract it.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"Insertion Sort", "Binary Insertion Sort", "Pair Insertion Sort", "Shell Sort", "Merge Sort",
+        "Natural Merge Sort", "Quick Sort", "Intro Sort", "Heap Sort", "Radix Sort", "Parallel Merge Sort",
+        "Parallel Quick Sort"})
+    public String algorithm;
+
+    // Small-range tier of the merge, quick, intro and Shell sorts, e.g.
+    // -p smallCutoff=16,32,64 -p smallSort=Linear,Binary,Pair
+    @Param({"32"})
+    public int smallCutoff;
+
+    @Param({"Linear"})
+    public String smallSort;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"random", "sorted", "reversed", "nearlySorted", "manyDuplicates"})
+    public String distribution;
+
+    private double[] source;
+    private double[] work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SortEngine.setSmallSortCutoff(smallCutoff);
+        SortEngine.setSmallSort(InsertionVariant.fromName(smallSort));
+        source = generate(distribution, size, 42L);
+        work = new double[size];
+    }
+
+    @Benchmark
+    public double[] sort() {
+        System.arraycopy(source, 0, work, 0, size);
+        SortEngine.sort(algorithm, work);
+        return work;
+    }
+
+    @Benchmark
+    public double[] copyOnly() {
+        System.arraycopy(source, 0, work, 0, size);
+        return work;
+    }
+
+    static double[] generate(String distribution, int size, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[size];
+        switch (distribution) {
+            case "random" -> {
+                for (int i = 0; i < size; i++) values[i] = random.nextDouble();
+            }
+            case "sorted" -> {
+                for (int i = 0; i < size; i++) values[i] = i;
+            }
+            case "reversed" -> {
+                for (int i = 0; i < size; i++) values[i] = size - i;
+            }
+            case "nearlySorted" -> {
+                // Sorted with about 1% of the elements swapped at random
+                for (int i = 0; i < size; i++) values[i] = i;
+                for (int k = 0; k < size / 100; k++) {
+                    int i = random.nextInt(size);
+                    int j = random.nextInt(size);
+                    double temp = values[i];
+                    values[i] = values[j];
+                    values[j] = temp;
+                }
+            }
+            case "manyDuplicates" -> {
+                for (int i = 0; i < size; i++) values[i] = random.nextInt(16);
+            }
+            default -> throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,303 @@
+package cli;
+
+import data.CsvColumnLoader;
+import data.Distribution;
+import data.WorkloadGenerator;
+import engine.BenchmarkResult;
+import engine.BenchmarkRunner;
+import engine.GapSequence;
+import engine.HeapVariant;
+import engine.InsertionVariant;
+import engine.SortEngine;
+import engine.SortMetrics;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Headless batch benchmark. Never touches AWT, so it runs on CI and servers:
+//
+//   java -cp SortingAlgorithmApp.jar:lib/* cli.BenchmarkCli --csv data.csv
+//        --columns price,qty --algorithms "Quick Sort,Heap Sort" --repeat 5
+//        --warmup 2 --format json --out results.json
+//
+// or on generated data, without a file:
+//
+//   java -cp SortingAlgorithmApp.jar:lib/* cli.BenchmarkCli --generate all
+//        --size 10000000 --seed 7
+public final class BenchmarkCli {
+
+    private static final String USAGE = String.join("\n",
+            "Usage: cli.BenchmarkCli (--csv <file> | --generate <a,b,...|all>) [options]",
+            "  --columns <a,b,...>      column names to sort (default: all)",
+            "  --generate <a,b,...|all> sort seeded generated data instead of a file, one",
+            "                           column per distribution",
+            "  --size <n>               values per generated column (default: 1000000)",
+            "  --seed <n>               seed for generated columns (default: 1)",
+            "  --algorithms <a,b,...>   algorithms to run (default: all but the quadratic",
+            "                           insertion sorts, which only run when named)",
+            "  --repeat <n>             measured runs per algorithm (default: 5)",
+            "  --warmup <n>             unrecorded warmup runs (default: 1)",
+            "  --metrics                also count comparisons, swaps, writes, recursion",
+            "                           depth, allocation and GC in one extra run",
+            "  --gaps <a,b,...|all>     run Shell Sort once per gap sequence (default: "
+                    + SortEngine.getShellGaps() + ")",
+            "  --small-cutoff <n,...>   ranges the merge, quick, intro and Shell sorts leave",
+            "                           to insertion sort; one row per value (default: "
+                    + SortEngine.getSmallSortCutoff() + ")",
+            "  --small-sort <a,...|all> insertion sort used below the cutoff; one row per",
+            "                           variant (default: " + SortEngine.getSmallSort() + ")",
+            "  --heap <a,b,...|all>     run Heap Sort once per heap variant (default: "
+                    + SortEngine.getHeapVariant() + ")",
+            "  --format <csv|json>      output format (default: csv)",
+            "  --out <file>             output file (default: stdout)",
+            "Algorithms: " + String.join(", ", SortEngine.ALGORITHMS),
+            "Gap sequences: " + Arrays.toString(GapSequence.values()),
+            "Insertion sorts: " + Arrays.toString(InsertionVariant.values()),
+            "Heap variants: " + Arrays.toString(HeapVariant.values()),
+            "Distributions: " + Arrays.toString(Distribution.values()));
+
+    private BenchmarkCli() {
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static int run(String[] args) throws IOException {
+        String csv = null;
+        String generate = null;
+        int size = 1_000_000;
+        long seed = 1;
+        String columns = null;
+        String algorithms = null;
+        int repeat = 5;
+        int warmup = 1;
+        String format = "csv";
+        String out = null;
+        String gaps = null;
+        String smallCutoffs = null;
+        String smallSorts = null;
+        String heaps = null;
+        boolean withMetrics = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--help") || arg.equals("-h")) {
+                System.out.println(USAGE);
+                return 0;
+            }
+            if (arg.equals("--metrics")) {
+                withMetrics = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--csv" -> csv = value;
+                case "--generate" -> generate = value;
+                case "--size" -> size = parseNonNegative(arg, value);
+                case "--seed" -> seed = CliOptions.parseSeed(value);
+                case "--columns" -> columns = value;
+                case "--algorithms" -> algorithms = value;
+                case "--repeat" -> repeat = parsePositive(arg, value);
+                case "--warmup" -> warmup = parseNonNegative(arg, value);
+                case "--format" -> format = value;
+                case "--out" -> out = value;
+                case "--gaps" -> gaps = value;
+                case "--small-cutoff" -> smallCutoffs = value;
+                case "--small-sort" -> smallSorts = value;
+                case "--heap" -> heaps = value;
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if ((csv == null) == (generate == null)) {
+            throw new IllegalArgumentException("Exactly one of --csv and --generate is required");
+        }
+        if (generate != null && columns != null) {
+            throw new IllegalArgumentException("--columns only applies to --csv");
+        }
+        if (!format.equals("csv") && !format.equals("json")) {
+            throw new IllegalArgumentException("Unknown format: " + format);
+        }
+
+        File file = null;
+        int[] columnIndexes = null;
+        Distribution[] distributions = null;
+        String[] columnNames;
+        if (generate != null) {
+            distributions = generate.equals("all") ? Distribution.values()
+                    : Arrays.stream(split(generate)).map(Distribution::fromName).toArray(Distribution[]::new);
+            columnNames = Arrays.stream(distributions).map(Distribution::toString).toArray(String[]::new);
+        } else {
+            file = new File(csv);
+            String[] headers = CsvColumnLoader.readHeader(file);
+            columnNames = columns != null ? split(columns) : headers;
+            columnIndexes = new int[columnNames.length];
+            for (int c = 0; c < columnNames.length; c++) {
+                columnIndexes[c] = Arrays.asList(headers).indexOf(columnNames[c]);
+                if (columnIndexes[c] < 0) {
+                    throw new IllegalArgumentException("Unknown column: " + columnNames[c]);
+                }
+            }
+        }
+        // The insertion sorts would spend hours on a large column before the first row
+        String[] algorithmNames = algorithms != null ? split(algorithms)
+                : Arrays.stream(SortEngine.ALGORITHMS).filter(a -> !SortEngine.isQuadratic(a)).toArray(String[]::new);
+        for (String algorithm : algorithmNames) {
+            if (!Arrays.asList(SortEngine.ALGORITHMS).contains(algorithm)) {
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+            }
+        }
+        GapSequence[] gapSequences = gaps == null ? new GapSequence[] {SortEngine.getShellGaps()}
+                : gaps.equals("all") ? GapSequence.values()
+                : Arrays.stream(split(gaps)).map(GapSequence::fromName).toArray(GapSequence[]::new);
+        // Comparing sequences implies running Shell Sort
+        if (gaps != null && !Arrays.asList(algorithmNames).contains(SortEngine.SHELL_SORT)) {
+            algorithmNames = Arrays.copyOf(algorithmNames, algorithmNames.length + 1);
+            algorithmNames[algorithmNames.length - 1] = SortEngine.SHELL_SORT;
+        }
+        int[] cutoffs = smallCutoffs == null ? new int[] {SortEngine.getSmallSortCutoff()}
+                : Arrays.stream(split(smallCutoffs)).mapToInt(v -> parsePositive("--small-cutoff", v)).toArray();
+        InsertionVariant[] insertionVariants = smallSorts == null ? new InsertionVariant[] {SortEngine.getSmallSort()}
+                : smallSorts.equals("all") ? InsertionVariant.values()
+                : Arrays.stream(split(smallSorts)).map(InsertionVariant::fromName).toArray(InsertionVariant[]::new);
+        HeapVariant[] heapVariants = heaps == null ? new HeapVariant[] {SortEngine.getHeapVariant()}
+                : heaps.equals("all") ? HeapVariant.values()
+                : Arrays.stream(split(heaps)).map(HeapVariant::fromName).toArray(HeapVariant[]::new);
+        // Comparing heap variants implies running Heap Sort
+        if (heaps != null && !Arrays.asList(algorithmNames).contains(SortEngine.HEAP_SORT)) {
+            algorithmNames = Arrays.copyOf(algorithmNames, algorithmNames.length + 1);
+            algorithmNames[algorithmNames.length - 1] = SortEngine.HEAP_SORT;
+        }
+
+        // One entry per algorithm and combination of the settings it depends on
+        List<Setting> settings = new ArrayList<>();
+        for (String algorithm : algorithmNames) {
+            boolean shell = algorithm.equals(SortEngine.SHELL_SORT);
+            boolean small = SortEngine.usesSmallSort(algorithm);
+            boolean heap = algorithm.equals(SortEngine.HEAP_SORT);
+            for (GapSequence sequence : shell ? gapSequences : new GapSequence[] {SortEngine.getShellGaps()}) {
+                for (int cutoff : small ? cutoffs : new int[] {SortEngine.getSmallSortCutoff()}) {
+                    for (InsertionVariant variant : small ? insertionVariants : new InsertionVariant[] {SortEngine.getSmallSort()}) {
+                        for (HeapVariant heapVariant : heap ? heapVariants : new HeapVariant[] {SortEngine.getHeapVariant()}) {
+                            // Rows name the settings that are being compared
+                            List<String> swept = new ArrayList<>();
+                            if (shell && gaps != null) swept.add(sequence.toString());
+                            if (small && smallCutoffs != null) swept.add("cutoff " + cutoff);
+                            if (small && smallSorts != null) swept.add(variant.toString().toLowerCase());
+                            if (heap && heaps != null) swept.add(heapVariant.toString().toLowerCase());
+                            String label = swept.isEmpty() ? algorithm : algorithm + " (" + String.join(", ", swept) + ")";
+                            settings.add(new Setting(algorithm, label, sequence, cutoff, variant, heapVariant));
+                        }
+                    }
+                }
+            }
+        }
+
+        double[][] data;
+        if (distributions != null) {
+            // Generated straight into the arrays the sorts run on
+            data = new double[distributions.length][];
+            for (int d = 0; d < distributions.length; d++) {
+                data[d] = WorkloadGenerator.generate(distributions[d], size, seed);
+            }
+        } else {
+            // All requested columns come from a single streaming pass
+            data = CsvColumnLoader.loadColumns(file, columnIndexes);
+        }
+
+        List<String> resultColumns = new ArrayList<>();
+        List<String> resultAlgorithms = new ArrayList<>();
+        List<BenchmarkResult> results = new ArrayList<>();
+        List<SortMetrics> metrics = withMetrics ? new ArrayList<>() : null;
+        GapSequence defaultGaps = SortEngine.getShellGaps();
+        int defaultCutoff = SortEngine.getSmallSortCutoff();
+        InsertionVariant defaultSmallSort = SortEngine.getSmallSort();
+        HeapVariant defaultHeap = SortEngine.getHeapVariant();
+        try {
+            for (int c = 0; c < columnNames.length; c++) {
+                for (Setting setting : settings) {
+                    SortEngine.setShellGaps(setting.gaps());
+                    SortEngine.setSmallSortCutoff(setting.cutoff());
+                    SortEngine.setSmallSort(setting.smallSort());
+                    SortEngine.setHeapVariant(setting.heap());
+                    System.err.printf("%s / %s (%d values)%n", columnNames[c], setting.label(), data[c].length);
+                    resultColumns.add(columnNames[c]);
+                    resultAlgorithms.add(setting.label());
+                    results.add(BenchmarkRunner.run(setting.algorithm(), data[c], warmup, repeat));
+                    if (metrics != null) {
+                        metrics.add(SortMetrics.measure(setting.algorithm(), data[c].clone()));
+                    }
+                }
+            }
+        } finally {
+            SortEngine.setShellGaps(defaultGaps);
+            SortEngine.setSmallSortCutoff(defaultCutoff);
+            SortEngine.setSmallSort(defaultSmallSort);
+            SortEngine.setHeapVariant(defaultHeap);
+        }
+
+        Writer target = out != null
+                ? new FileWriter(out)
+                : new OutputStreamWriter(System.out);
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(target))) {
+            if (format.equals("json")) {
+                ResultWriter.writeJson(writer, resultColumns, resultAlgorithms, results, metrics);
+            } else {
+                ResultWriter.writeCsv(writer, resultColumns, resultAlgorithms, results, metrics);
+            }
+        }
+        return 0;
+    }
+
+    // Engine settings for one row of output
+    private record Setting(String algorithm, String label, GapSequence gaps, int cutoff, InsertionVariant smallSort,
+            HeapVariant heap) {
+    }
+
+    private static String[] split(String list) {
+        return Arrays.stream(list.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static int parsePositive(String option, String value) {
+        int parsed = parseNonNegative(option, value);
+        if (parsed == 0) {
+            throw new IllegalArgumentException(option + " must be at least 1");
+        }
+        return parsed;
+    }
+
+    private static int parseNonNegative(String option, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 0) {
+                throw new IllegalArgumentException(option + " must not be negative");
+            }
+            return parsed;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid number for " + option + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package cli;
+
+// Option parsing shared by the command-line tools
+final class CliOptions {
+
+    private CliOptions() {
+    }
+
+    // Any long, negative included
+    static long parseSeed(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid number for --seed: " + value);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package cli;
+
+import data.Distribution;
+import data.WorkloadGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+// Writes a seeded workload to a CSV or binary file, streamed in chunks so the
+// size is only limited by the disk:
+//
+//   java -cp SortingAlgorithmApp.jar:lib/* cli.GenerateCli --distribution zipf
+//        --size 1000000000 --seed 7 --format bin --out zipf-1e9.bin
+public final class GenerateCli {
+
+    private static final String USAGE = String.join("\n",
+            "Usage: cli.GenerateCli --distribution <name> --size <n> --out <file> [options]",
+            "  --seed <n>               random seed (default: 1)",
+            "  --param <n>              ranks (Zipf), tooth length (Sawtooth), distinct values",
+            "                           (Few unique) or perturbed positions (Perturbed)",
+            "  --format <csv|bin>       one-column CSV or raw big-endian doubles (default: csv)",
+            "  --header <name>          CSV column header (default: the distribution name)",
+            "Distributions: " + Arrays.toString(Distribution.values()));
+
+    private GenerateCli() {
+    }
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        } catch (IOException ex) {
+            System.err.println("Error: " + ex.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static int run(String[] args) throws IOException {
+        String distributionName = null;
+        long size = -1;
+        long seed = 1;
+        Integer param = null;
+        String format = "csv";
+        String header = null;
+        String out = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--help") || arg.equals("-h")) {
+                System.out.println(USAGE);
+                return 0;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--distribution" -> distributionName = value;
+                case "--size" -> size = parseLong(arg, value);
+                case "--seed" -> seed = CliOptions.parseSeed(value);
+                case "--param" -> param = (int) Math.min(Integer.MAX_VALUE, parseLong(arg, value));
+                case "--format" -> format = value;
+                case "--header" -> header = value;
+                case "--out" -> out = value;
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (distributionName == null || size < 0 || out == null) {
+            throw new IllegalArgumentException("--distribution, --size and --out are required");
+        }
+        if (!format.equals("csv") && !format.equals("bin")) {
+            throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        Distribution distribution = Distribution.fromName(distributionName);
+        WorkloadGenerator generator = param != null
+                ? new WorkloadGenerator(distribution, size, seed, param)
+                : new WorkloadGenerator(distribution, size, seed);
+
+        File file = new File(out);
+        long startTime = System.nanoTime();
+        if (format.equals("bin")) {
+            generator.writeBinary(file);
+        } else {
+            generator.writeCsv(file, header != null ? header : distribution.toString().toLowerCase());
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.err.printf("Wrote %d values to %s in %.2f s (%.1f MB/s)%n",
+                size, file, seconds, file.length() / 1e6 / seconds);
+        return 0;
+    }
+
+    private static long parseLong(String option, String value) {
+        try {
+            long parsed = Long.parseLong(value);
+            if (parsed < 0) {
+                throw new IllegalArgumentException(option + " must not be negative");
+            }
+            return parsed;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid number for " + option + ": " + value);
+        }
+    }
+}
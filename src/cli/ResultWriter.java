@@ -0,0 +1,96 @@
+package cli;
+
+import engine.BenchmarkResult;
+import engine.SortMetrics;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Locale;
+
+// Writes benchmark results as CSV or JSON. columns.get(i) is the input column of results.get(i)
+// and algorithms.get(i) its label, and metrics, when not null, holds the instrumented run for
+// the same entry.
+final class ResultWriter {
+
+    private ResultWriter() {
+    }
+
+    static void writeCsv(PrintWriter writer, List<String> columns, List<String> algorithms,
+            List<BenchmarkResult> results, List<SortMetrics> metrics) {
+        writer.print("column,algorithm,values,runs,min_ms,median_ms,mean_ms,max_ms");
+        writer.println(metrics != null ? ",comparisons,swaps,writes,max_depth,allocated_bytes,gc_count,gc_ms" : "");
+        for (int i = 0; i < results.size(); i++) {
+            BenchmarkResult result = results.get(i);
+            writer.printf(Locale.ROOT, "%s,%s,%d,%d,%.3f,%.3f,%.3f,%.3f",
+                    csvField(columns.get(i)), csvField(algorithms.get(i)),
+                    result.getSize(), result.getRuns(),
+                    result.getMinMillis(), result.getMedianMillis(),
+                    result.getMeanMillis(), result.getMaxMillis());
+            if (metrics != null) {
+                SortMetrics m = metrics.get(i);
+                writer.printf(Locale.ROOT, ",%d,%d,%d,%d,%d,%d,%d",
+                        m.getComparisons(), m.getSwaps(), m.getWrites(), m.getMaxDepth(),
+                        m.getAllocatedBytes(), m.getGcCount(), m.getGcMillis());
+            }
+            writer.println();
+        }
+    }
+
+    static void writeJson(PrintWriter writer, List<String> columns, List<String> algorithms,
+            List<BenchmarkResult> results, List<SortMetrics> metrics) {
+        writer.println("[");
+        for (int i = 0; i < results.size(); i++) {
+            BenchmarkResult result = results.get(i);
+            writer.printf(Locale.ROOT,
+                    "  {\"column\": %s, \"algorithm\": %s, \"values\": %d, \"runs\": %d, "
+                    + "\"min_ms\": %.3f, \"median_ms\": %.3f, \"mean_ms\": %.3f, \"max_ms\": %.3f, ",
+                    jsonString(columns.get(i)), jsonString(algorithms.get(i)),
+                    result.getSize(), result.getRuns(),
+                    result.getMinMillis(), result.getMedianMillis(),
+                    result.getMeanMillis(), result.getMaxMillis());
+            if (metrics != null) {
+                SortMetrics m = metrics.get(i);
+                writer.printf(Locale.ROOT,
+                        "\"comparisons\": %d, \"swaps\": %d, \"writes\": %d, \"max_depth\": %d, "
+                        + "\"allocated_bytes\": %d, \"gc_count\": %d, \"gc_ms\": %d, ",
+                        m.getComparisons(), m.getSwaps(), m.getWrites(), m.getMaxDepth(),
+                        m.getAllocatedBytes(), m.getGcCount(), m.getGcMillis());
+            }
+            writer.print("\"runs_ms\": [");
+            double[] runs = result.getRunMillis();
+            for (int r = 0; r < runs.length; r++) {
+                writer.printf(Locale.ROOT, r == 0 ? "%.3f" : ", %.3f", runs[r]);
+            }
+            writer.println(i < results.size() - 1 ? "]}," : "]}");
+        }
+        writer.println("]");
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    static String jsonString(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
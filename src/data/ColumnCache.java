@@ -0,0 +1,119 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+// Parsed columns kept across sorts, keyed by file identity (canonical path,
+// size, modification time) and column index, so choosing another algorithm
+// for the same column does not parse the file again. A changed file gets new
+// keys and its old entries are dropped. Entries are evicted least recently
+// used first once their arrays exceed the memory cap, sorting.cache.maxBytes.
+public final class ColumnCache {
+
+    private static final Map<Key, CachedColumn> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private static final long MAX_BYTES = Long.getLong("sorting.cache.maxBytes", 512L << 20);
+    private static long usedBytes;
+
+    private ColumnCache() {
+    }
+
+    // Cached column, parsed on a miss. The arrays are shared: callers must copy before sorting.
+    public static CachedColumn get(File file, int column) throws IOException {
+        Key key = new Key(file, column);
+        synchronized (ColumnCache.class) {
+            CachedColumn cached = entries.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Parsed outside the lock so other columns stay available meanwhile
+        ColumnStats stats = new ColumnStats();
+        CachedColumn loaded = new CachedColumn(CsvColumnLoader.loadColumn(file, column, stats), stats);
+        synchronized (ColumnCache.class) {
+            CachedColumn raced = entries.get(key);
+            if (raced != null) {
+                return raced;
+            }
+            // Older versions of the same file and column can never be hit again
+            Iterator<Map.Entry<Key, CachedColumn>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, CachedColumn> entry = it.next();
+                if (entry.getKey().sameColumn(key)) {
+                    usedBytes -= entry.getValue().bytes();
+                    it.remove();
+                }
+            }
+            if (loaded.bytes() <= MAX_BYTES) {
+                entries.put(key, loaded);
+                usedBytes += loaded.bytes();
+                evict();
+            }
+        }
+        return loaded;
+    }
+
+    private static void evict() {
+        Iterator<CachedColumn> it = entries.values().iterator();
+        while (usedBytes > MAX_BYTES && it.hasNext()) {
+            usedBytes -= it.next().bytes();
+            it.remove();
+        }
+    }
+
+    // One parsed column with its parse statistics
+    public static final class CachedColumn {
+        private final double[] values;
+        private final ColumnStats stats;
+
+        CachedColumn(double[] values, ColumnStats stats) {
+            this.values = values;
+            this.stats = stats;
+        }
+
+        // Numeric values in file order; shared, do not modify
+        public double[] getValues() {
+            return values;
+        }
+
+        public ColumnStats getStats() {
+            return stats;
+        }
+
+        long bytes() {
+            return (long) values.length * Double.BYTES;
+        }
+    }
+
+    private static final class Key {
+        private final String path;
+        private final long length;
+        private final long lastModified;
+        private final int column;
+
+        Key(File file, int column) throws IOException {
+            this.path = file.getCanonicalPath();
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+            this.column = column;
+        }
+
+        boolean sameColumn(Key other) {
+            return path.equals(other.path) && column == other.column;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && sameColumn(other)
+                    && length == other.length && lastModified == other.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, length, lastModified, column);
+        }
+    }
+}
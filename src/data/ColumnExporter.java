@@ -0,0 +1,46 @@
+package data;
+
+import com.opencsv.CSVWriter;
+import engine.SortJob;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+
+// Streams a numeric column to a one-column CSV file
+public final class ColumnExporter {
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final int CHECK_INTERVAL = 1 << 16;
+
+    private ColumnExporter() {
+    }
+
+    // Values are written with Double.toString, which round-trips exactly. A job
+    // attached to the thread is checked every CHECK_INTERVAL values.
+    public static void writeColumn(File file, String header, double[] values) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file), WRITE_BUFFER_SIZE)) {
+            writer.write(headerCell(header));
+            writer.newLine();
+            for (int i = 0; i < values.length; i++) {
+                if ((i & (CHECK_INTERVAL - 1)) == 0) {
+                    SortJob.checkCancelled();
+                }
+                writer.write(Double.toString(values[i]));
+                writer.newLine();
+            }
+        }
+    }
+
+    // Header quoted by opencsv as CsvRowSorter writes it, so names holding a
+    // comma, quote or line break read back unchanged
+    static String headerCell(String header) throws IOException {
+        StringWriter cell = new StringWriter();
+        try (CSVWriter writer = new CSVWriter(cell, CSVWriter.DEFAULT_SEPARATOR,
+                CSVWriter.DEFAULT_QUOTE_CHARACTER, CSVWriter.DEFAULT_ESCAPE_CHARACTER, "")) {
+            writer.writeNext(new String[] {header}, false);
+        }
+        return cell.toString();
+    }
+}
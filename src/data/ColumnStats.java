@@ -0,0 +1,61 @@
+package data;
+
+// Data quality counters for one parsed column. Cells missing from short rows
+// count as empty.
+public final class ColumnStats {
+
+    private long numeric;
+    private long empty;
+    private long invalid;
+
+    void record(boolean parsed, NumberParser parser) {
+        if (parsed) {
+            numeric++;
+        } else if (parser.wasEmpty()) {
+            empty++;
+        } else {
+            invalid++;
+        }
+    }
+
+    void unrecord(boolean parsed, NumberParser parser) {
+        if (parsed) {
+            numeric--;
+        } else if (parser.wasEmpty()) {
+            empty--;
+        } else {
+            invalid--;
+        }
+    }
+
+    void recordMissing() {
+        empty++;
+    }
+
+    void copyFrom(ColumnStats other) {
+        numeric = other.numeric;
+        empty = other.empty;
+        invalid = other.invalid;
+    }
+
+    public long getNumeric() {
+        return numeric;
+    }
+
+    public long getEmpty() {
+        return empty;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public long getTotal() {
+        return numeric + empty + invalid;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("numeric=%d, empty=%d, invalid=%d", numeric, empty, invalid);
+    }
+}
@@ -0,0 +1,116 @@
+package data;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+
+// Streams a CSV file row by row and keeps only the requested columns, so peak
+// memory is proportional to the parsed column instead of the whole file.
+// Files at or above the mapped threshold go through MappedCsvScanner instead.
+public final class CsvColumnLoader {
+
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private static volatile long mappedThreshold =
+            Long.getLong("sorting.csv.mappedThreshold", 64L << 20);
+
+    private CsvColumnLoader() {
+    }
+
+    public static String[] readHeader(File file) throws IOException {
+        try (CSVReader reader = open(file)) {
+            String[] header = reader.readNext();
+            if (header == null) {
+                throw new IOException("CSV file is empty: " + file.getName());
+            }
+            return header;
+        } catch (CsvValidationException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    public static long getMappedThreshold() {
+        return mappedThreshold;
+    }
+
+    // Minimum file size in bytes for the memory-mapped scanner
+    public static void setMappedThreshold(long bytes) {
+        mappedThreshold = bytes;
+    }
+
+    public static double[] loadColumn(File file, int column) throws IOException {
+        return loadColumn(file, column, new ColumnStats());
+    }
+
+    public static double[] loadColumn(File file, int column, ColumnStats stats) throws IOException {
+        return loadColumns(file, new ColumnStats[]{stats}, column)[0];
+    }
+
+    public static double[][] loadColumns(File file, int... columns) throws IOException {
+        return loadColumns(file, newStats(columns.length), columns);
+    }
+
+    // Parses the given columns in one pass, filling stats[c] for columns[c]. Non-numeric
+    // and missing cells are skipped, so the returned arrays may differ in length.
+    public static double[][] loadColumns(File file, ColumnStats[] stats, int... columns) throws IOException {
+        if (file.length() >= mappedThreshold) {
+            return MappedCsvScanner.loadColumns(file, stats, columns);
+        }
+
+        DoubleArrayBuilder[] builders = new DoubleArrayBuilder[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            builders[c] = new DoubleArrayBuilder();
+        }
+        appendColumns(new BufferedReader(new FileReader(file), READ_BUFFER_SIZE), true, columns, builders, stats);
+
+        double[][] result = new double[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            result[c] = builders[c].toArray();
+        }
+        return result;
+    }
+
+    // Streams the remaining rows of the reader into the builders and closes it
+    static void appendColumns(Reader source, boolean skipHeader, int[] columns,
+            DoubleArrayBuilder[] builders, ColumnStats[] stats) throws IOException {
+        NumberParser parser = new NumberParser();
+        try (CSVReader reader = new CSVReader(source)) {
+            if (skipHeader) {
+                reader.readNext();
+            }
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                for (int c = 0; c < columns.length; c++) {
+                    int column = columns[c];
+                    if (row.length > column) {
+                        boolean parsed = parser.parse(row[column]);
+                        if (parsed) {
+                            builders[c].add(parser.value());
+                        }
+                        stats[c].record(parsed, parser);
+                    } else {
+                        stats[c].recordMissing();
+                    }
+                }
+            }
+        } catch (CsvValidationException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    private static ColumnStats[] newStats(int count) {
+        ColumnStats[] stats = new ColumnStats[count];
+        for (int c = 0; c < count; c++) {
+            stats[c] = new ColumnStats();
+        }
+        return stats;
+    }
+
+    private static CSVReader open(File file) throws IOException {
+        return new CSVReader(new BufferedReader(new FileReader(file), READ_BUFFER_SIZE));
+    }
+}
@@ -0,0 +1,100 @@
+package data;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+import engine.IndexSort;
+import engine.SortJob;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Sorts the rows of a CSV file by a list of keys and writes them, header
+// first, to another file. Each key column is extracted once into a primitive
+// array (text keys as ranks), an index permutation is sorted over those, and
+// the rows are written in permutation order. Rows themselves are never moved
+// or copied, and rows with equal keys keep their original order. A job
+// attached to the thread is checked every CHECK_INTERVAL rows read or written.
+public final class CsvRowSorter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int CHECK_INTERVAL = 1 << 14;
+
+    private CsvRowSorter() {
+    }
+
+    // Returns the number of data rows written
+    public static int sort(File source, File target, List<SortKey> keys) throws IOException {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("At least one sort key is required");
+        }
+        String[] header;
+        List<String[]> rows = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new BufferedReader(new FileReader(source), BUFFER_SIZE))) {
+            header = reader.readNext();
+            if (header == null) {
+                throw new IOException("CSV file is empty: " + source.getName());
+            }
+            String[] row;
+            while ((row = reader.readNext()) != null) {
+                rows.add(row);
+                if ((rows.size() & (CHECK_INTERVAL - 1)) == 0) {
+                    SortJob.checkCancelled();
+                }
+            }
+        } catch (CsvValidationException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+
+        int[] order = order(rows, keys);
+
+        try (CSVWriter writer = new CSVWriter(new BufferedWriter(new FileWriter(target), BUFFER_SIZE))) {
+            writer.writeNext(header, false);
+            for (int i = 0; i < order.length; i++) {
+                if ((i & (CHECK_INTERVAL - 1)) == 0) {
+                    SortJob.checkCancelled();
+                }
+                writer.writeNext(rows.get(order[i]), false);
+            }
+        }
+        return rows.size();
+    }
+
+    // Row permutation for the keys; missing cells compare as absent values and sort last
+    static int[] order(List<String[]> rows, List<SortKey> keys) {
+        double[][] keyColumns = new double[keys.size()][];
+        boolean[] descending = new boolean[keys.size()];
+        NumberParser parser = new NumberParser();
+        for (int k = 0; k < keys.size(); k++) {
+            SortKey key = keys.get(k);
+            int column = key.getColumn();
+            descending[k] = key.isDescending();
+            if (key.isLexical()) {
+                String[] text = new String[rows.size()];
+                for (int r = 0; r < text.length; r++) {
+                    String[] row = rows.get(r);
+                    text[r] = row.length > column ? row[column] : null;
+                }
+                double[] ranks = IndexSort.ranks(text);
+                // Missing cells rank last ascending; mark them so they stay last descending too
+                for (int r = 0; r < ranks.length; r++) {
+                    if (text[r] == null) ranks[r] = Double.NaN;
+                }
+                keyColumns[k] = ranks;
+            } else {
+                double[] numbers = new double[rows.size()];
+                for (int r = 0; r < numbers.length; r++) {
+                    String[] row = rows.get(r);
+                    numbers[r] = row.length > column && parser.parse(row[column]) ? parser.value() : Double.NaN;
+                }
+                keyColumns[k] = numbers;
+            }
+        }
+        return IndexSort.order(keyColumns, descending);
+    }
+}
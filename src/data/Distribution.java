@@ -0,0 +1,57 @@
+package data;
+
+// Value distributions for generated workloads. Some take one integer
+// parameter: the number of ranks for Zipf (exponent 1, rank r drawn with
+// weight 1 / r), the tooth length for Sawtooth, the number of distinct values
+// for Few unique, and the number of perturbed positions for Perturbed, a
+// sorted sequence in which that many positions hold random values instead.
+public enum Distribution {
+    UNIFORM("Uniform"),
+    GAUSSIAN("Gaussian"),
+    ZIPF("Zipf"),
+    SORTED("Sorted"),
+    REVERSED("Reversed"),
+    SAWTOOTH("Sawtooth"),
+    FEW_UNIQUE("Few unique"),
+    PERTURBED("Perturbed");
+
+    private final String displayName;
+
+    Distribution(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public boolean hasParameter() {
+        return this == ZIPF || this == SAWTOOTH || this == FEW_UNIQUE || this == PERTURBED;
+    }
+
+    // Parameter used when none is given; 1% of the values for Perturbed
+    public int defaultParameter(long size) {
+        return switch (this) {
+            case ZIPF, SAWTOOTH -> 1000;
+            case FEW_UNIQUE -> 16;
+            case PERTURBED -> (int) Math.min(Integer.MAX_VALUE, size / 100);
+            default -> 0;
+        };
+    }
+
+    // Every value is a whole number, so files can hold them without a fraction
+    boolean isIntegral() {
+        return this != UNIFORM && this != GAUSSIAN && this != PERTURBED;
+    }
+
+    // Distribution named by displayName, ignoring case
+    public static Distribution fromName(String name) {
+        for (Distribution distribution : values()) {
+            if (distribution.displayName.equalsIgnoreCase(name.trim())) {
+                return distribution;
+            }
+        }
+        throw new IllegalArgumentException("Unknown distribution: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,51 @@
+package data;
+
+import java.util.Arrays;
+
+// Growable primitive double buffer, used while streaming a column of unknown length
+public final class DoubleArrayBuilder {
+
+    private double[] values;
+    private int size;
+
+    public DoubleArrayBuilder() {
+        this(1024);
+    }
+
+    public DoubleArrayBuilder(int initialCapacity) {
+        values = new double[Math.max(16, initialCapacity)];
+    }
+
+    public void add(double value) {
+        if (size == values.length) {
+            // Grow by 1.5x, capped below the VM array limit
+            int newCapacity = (int) Math.min(Integer.MAX_VALUE - 8, values.length + (values.length >> 1) + 1L);
+            if (newCapacity <= size) {
+                throw new OutOfMemoryError("Column exceeds the maximum array size");
+            }
+            values = Arrays.copyOf(values, newCapacity);
+        }
+        values[size++] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double get(int index) {
+        return values[index];
+    }
+
+    void removeLast() {
+        size--;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Returns an exactly sized copy of the buffered values
+    public double[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
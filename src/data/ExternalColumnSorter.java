@@ -0,0 +1,347 @@
+package data;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import engine.SortEngine;
+import engine.SortJob;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Sorts a numeric column that does not fit in memory. The column is streamed
+// in chunks small enough that a chunk and the sort's scratch arrays stay
+// within the memory budget: a third of it for radix sort, half for the rest.
+// Each chunk is sorted with the chosen algorithm and spilled as a binary run
+// of raw doubles. Runs are then merged through a binary heap, at most fanIn
+// at a time, with every reader getting an equal share of the budget as its
+// buffer. The last merge writes the one-column CSV output. A column that fits
+// in one chunk is never spilled. A job attached to the thread is checked
+// between chunks and runs, and every CHECK_INTERVAL rows read or values
+// merged; run files are removed on cancel.
+public final class ExternalColumnSorter {
+
+    public static final long DEFAULT_MEMORY_BYTES = 256L << 20;
+    public static final int DEFAULT_FAN_IN = 64;
+
+    private static final int MIN_CHUNK_VALUES = 1 << 10;
+    private static final int MIN_BUFFER_BYTES = 1 << 13;
+    private static final int MAX_BUFFER_BYTES = 1 << 23;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+    private static final int CHECK_INTERVAL = 1 << 16;
+
+    private final String algorithm;
+    private final long memoryBytes;
+    private final int fanIn;
+    private File tempDirectory;
+
+    public ExternalColumnSorter(String algorithm, long memoryBytes, int fanIn) {
+        if (memoryBytes < (long) MIN_CHUNK_VALUES * chunksPerBudget(algorithm) * Double.BYTES) {
+            throw new IllegalArgumentException("Memory budget too small: " + memoryBytes + " bytes");
+        }
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("Fan-in must be at least 2: " + fanIn);
+        }
+        this.algorithm = algorithm;
+        this.memoryBytes = memoryBytes;
+        this.fanIn = fanIn;
+    }
+
+    // Directory for the run files; the system default when null
+    public void setTempDirectory(File tempDirectory) {
+        this.tempDirectory = tempDirectory;
+    }
+
+    public ExternalSortReport sort(File csv, int column, File target, ColumnStats stats) throws IOException {
+        int chunkValues = (int) Math.min(Integer.MAX_VALUE - 8,
+                memoryBytes / Double.BYTES / chunksPerBudget(algorithm));
+        double[] chunk = null;
+        int filled = 0;
+        long values = 0;
+        long rows = 0;
+        long readNanos = 0;
+        long sortNanos = 0;
+        long spillNanos = 0;
+        List<File> runs = new ArrayList<>();
+        // Every run file created, spilled or merged, until it is deleted
+        List<File> created = new ArrayList<>();
+        String header;
+
+        try {
+            long segmentStart = System.nanoTime();
+            NumberParser parser = new NumberParser();
+            try (CSVReader reader = new CSVReader(new BufferedReader(new FileReader(csv), READ_BUFFER_SIZE))) {
+                String[] headerRow = reader.readNext();
+                if (headerRow == null) {
+                    throw new IOException("CSV file is empty: " + csv.getName());
+                }
+                header = headerRow.length > column ? headerRow[column] : "value";
+                // Grows up to the chunk size, so small columns stay small
+                chunk = new double[Math.min(chunkValues, MIN_CHUNK_VALUES)];
+                String[] row;
+                while ((row = reader.readNext()) != null) {
+                    if ((++rows & (CHECK_INTERVAL - 1)) == 0) {
+                        SortJob.checkCancelled();
+                    }
+                    if (row.length <= column) {
+                        stats.recordMissing();
+                        continue;
+                    }
+                    boolean parsed = parser.parse(row[column]);
+                    stats.record(parsed, parser);
+                    if (!parsed) {
+                        continue;
+                    }
+                    if (filled == chunk.length) {
+                        if (filled < chunkValues) {
+                            chunk = Arrays.copyOf(chunk, (int) Math.min(chunkValues, 2L * filled));
+                        } else {
+                            long now = System.nanoTime();
+                            readNanos += now - segmentStart;
+                            SortEngine.sort(algorithm, chunk);
+                            long sorted = System.nanoTime();
+                            sortNanos += sorted - now;
+                            runs.add(spill(chunk, filled, created));
+                            SortJob.checkCancelled();
+                            segmentStart = System.nanoTime();
+                            spillNanos += segmentStart - sorted;
+                            filled = 0;
+                        }
+                    }
+                    chunk[filled++] = parser.value();
+                    values++;
+                }
+            } catch (CsvValidationException ex) {
+                throw new IOException(ex.getMessage(), ex);
+            }
+            long now = System.nanoTime();
+            readNanos += now - segmentStart;
+
+            // The full chunk is dropped before sorting, so the trimmed copy and
+            // its scratch arrays never sit beside it
+            double[] last = filled == chunk.length ? chunk : Arrays.copyOf(chunk, filled);
+            chunk = null;
+            SortEngine.sort(algorithm, last);
+            long sorted = System.nanoTime();
+            sortNanos += sorted - now;
+
+            if (runs.isEmpty()) {
+                // Everything fitted in one chunk: write it out directly
+                ColumnExporter.writeColumn(target, header, last);
+                long written = System.nanoTime();
+                return new ExternalSortReport(values, 0, 0, readNanos, sortNanos, written - sorted, 0);
+            }
+            runs.add(spill(last, last.length, created));
+            last = null;
+            long mergeStart = System.nanoTime();
+            spillNanos += mergeStart - sorted;
+
+            int passes = 0;
+            int runCount = runs.size();
+            while (runs.size() > fanIn) {
+                List<File> merged = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += fanIn) {
+                    List<File> group = runs.subList(from, Math.min(runs.size(), from + fanIn));
+                    if (group.size() == 1) {
+                        merged.add(group.get(0));
+                        continue;
+                    }
+                    SortJob.checkCancelled();
+                    File run = newRunFile(created);
+                    merged.add(run);
+                    try (RunWriter writer = new RunWriter(run, bufferBytes(group.size()))) {
+                        merge(group, writer);
+                    }
+                    // Inputs go as soon as their group is merged, which keeps disk use near one copy
+                    for (File input : group) {
+                        input.delete();
+                        created.remove(input);
+                    }
+                }
+                runs = merged;
+                passes++;
+            }
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(target), bufferBytes(runs.size()))) {
+                writer.write(ColumnExporter.headerCell(header));
+                writer.newLine();
+                merge(runs, value -> {
+                    writer.write(Double.toString(value));
+                    writer.newLine();
+                });
+            }
+            passes++;
+            return new ExternalSortReport(values, runCount, passes,
+                    readNanos, sortNanos, spillNanos, System.nanoTime() - mergeStart);
+        } finally {
+            for (File run : created) {
+                run.delete();
+            }
+        }
+    }
+
+    // Chunks the budget is divided into: one for the values and one per scratch
+    // array, and at least two, since the last partial chunk is copied out of a
+    // full one before it is sorted
+    private static int chunksPerBudget(String algorithm) {
+        return Math.max(2, 1 + SortEngine.scratchArrays(algorithm));
+    }
+
+    private interface ValueSink {
+        void accept(double value) throws IOException;
+    }
+
+    // K-way merge: the heap holds one reader per run, ordered by its current value
+    private void merge(List<File> runs, ValueSink sink) throws IOException {
+        int bufferBytes = bufferBytes(runs.size());
+        RunReader[] readers = new RunReader[runs.size()];
+        int[] heap = new int[runs.size()];
+        int size = 0;
+        try {
+            for (int r = 0; r < readers.length; r++) {
+                readers[r] = new RunReader(runs.get(r), bufferBytes);
+                if (readers[r].advance()) {
+                    heap[size++] = r;
+                }
+            }
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(heap, size, i, readers);
+            }
+            long merged = 0;
+            while (size > 0) {
+                if ((++merged & (CHECK_INTERVAL - 1)) == 0) {
+                    SortJob.checkCancelled();
+                }
+                RunReader top = readers[heap[0]];
+                sink.accept(top.current);
+                if (!top.advance()) {
+                    heap[0] = heap[--size];
+                }
+                siftDown(heap, size, 0, readers);
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, int i, RunReader[] readers) {
+        int item = heap[i];
+        double value = readers[item].current;
+        int child;
+        while ((child = 2 * i + 1) < size) {
+            if (child + 1 < size && readers[heap[child + 1]].current < readers[heap[child]].current) child++;
+            if (readers[heap[child]].current >= value) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = item;
+    }
+
+    private File spill(double[] values, int count, List<File> created) throws IOException {
+        File run = newRunFile(created);
+        try (RunWriter writer = new RunWriter(run, bufferBytes(1))) {
+            for (int i = 0; i < count; i++) {
+                writer.accept(values[i]);
+            }
+        }
+        return run;
+    }
+
+    // Recorded in created before anything is written, so a failed write is still cleaned up
+    private File newRunFile(List<File> created) throws IOException {
+        File run = File.createTempFile("sort-run-", ".bin", tempDirectory);
+        created.add(run);
+        run.deleteOnExit();
+        return run;
+    }
+
+    // Equal share of the budget for each open run plus the output
+    private int bufferBytes(int openRuns) {
+        long share = memoryBytes / (openRuns + 1);
+        return (int) Math.max(MIN_BUFFER_BYTES, Math.min(MAX_BUFFER_BYTES, share)) & ~(Double.BYTES - 1);
+    }
+
+    private static final class RunWriter implements ValueSink, AutoCloseable {
+        private final RandomAccessFile file;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        RunWriter(File run, int bufferBytes) throws IOException {
+            file = new RandomAccessFile(run, "rw");
+            channel = file.getChannel();
+            buffer = ByteBuffer.allocateDirect(bufferBytes);
+        }
+
+        @Override
+        public void accept(double value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putDouble(value);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                file.close();
+            }
+        }
+    }
+
+    private static final class RunReader implements AutoCloseable {
+        private final RandomAccessFile file;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        double current;
+
+        RunReader(File run, int bufferBytes) throws IOException {
+            file = new RandomAccessFile(run, "r");
+            channel = file.getChannel();
+            buffer = ByteBuffer.allocateDirect(bufferBytes);
+            buffer.limit(0);
+        }
+
+        // Moves to the next value; false at the end of the run
+        boolean advance() throws IOException {
+            if (buffer.remaining() < Double.BYTES) {
+                buffer.compact();
+                int read;
+                do {
+                    read = channel.read(buffer);
+                } while (read > 0 && buffer.hasRemaining());
+                buffer.flip();
+                if (buffer.remaining() < Double.BYTES) {
+                    return false;
+                }
+            }
+            current = buffer.getDouble();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package data;
+
+// Where an external sort spent its time, phase by phase
+public final class ExternalSortReport {
+
+    private final long values;
+    private final int runs;
+    private final int mergePasses;
+    private final long readNanos;
+    private final long sortNanos;
+    private final long spillNanos;
+    private final long mergeNanos;
+
+    ExternalSortReport(long values, int runs, int mergePasses,
+            long readNanos, long sortNanos, long spillNanos, long mergeNanos) {
+        this.values = values;
+        this.runs = runs;
+        this.mergePasses = mergePasses;
+        this.readNanos = readNanos;
+        this.sortNanos = sortNanos;
+        this.spillNanos = spillNanos;
+        this.mergeNanos = mergeNanos;
+    }
+
+    public long getValues() {
+        return values;
+    }
+
+    // Sorted runs spilled to disk; 0 when the column fitted in memory
+    public int getRuns() {
+        return runs;
+    }
+
+    // Merge passes over the data, including the final one into the output
+    public int getMergePasses() {
+        return mergePasses;
+    }
+
+    public double getReadMillis() {
+        return readNanos / 1_000_000.0;
+    }
+
+    public double getSortMillis() {
+        return sortNanos / 1_000_000.0;
+    }
+
+    public double getSpillMillis() {
+        return spillNanos / 1_000_000.0;
+    }
+
+    public double getMergeMillis() {
+        return mergeNanos / 1_000_000.0;
+    }
+
+    public double getTotalMillis() {
+        return (readNanos + sortNanos + spillNanos + mergeNanos) / 1_000_000.0;
+    }
+
+    public String toSummary() {
+        return String.format("Values: %,d%nRuns: %d, merge passes: %d%nRead: %.2f ms%nSort: %.2f ms%n"
+                + "Spill: %.2f ms%nMerge: %.2f ms%nTotal: %.2f ms%n",
+                values, runs, mergePasses, getReadMillis(), getSortMillis(),
+                getSpillMillis(), getMergeMillis(), getTotalMillis());
+    }
+}
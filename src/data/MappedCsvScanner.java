@@ -0,0 +1,184 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Column scanner over a memory-mapped file. Field boundaries are found and
+// numbers parsed directly from the mapped bytes, with no String per cell.
+// The file is mapped in windows that always end on a record boundary. As soon
+// as a quote character shows up, the rest of the file from that record on is
+// handed to opencsv, which knows how to deal with quoted fields.
+final class MappedCsvScanner {
+
+    private static final long WINDOW_SIZE = 256L << 20;
+
+    private MappedCsvScanner() {
+    }
+
+    static double[][] loadColumns(File file, ColumnStats[] stats, int... columns) throws IOException {
+        return loadColumns(file, stats, columns, WINDOW_SIZE);
+    }
+
+    // Maps at most windowSize bytes at a time; small windows let tests cross many boundaries
+    static double[][] loadColumns(File file, ColumnStats[] stats, int[] columns, long windowSize) throws IOException {
+        int maxColumn = -1;
+        for (int column : columns) {
+            maxColumn = Math.max(maxColumn, column);
+        }
+        // Field index -> builder slot, -1 for fields we do not need
+        int[] slots = new int[maxColumn + 1];
+        Arrays.fill(slots, -1);
+        DoubleArrayBuilder[] builders = new DoubleArrayBuilder[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            builders[c] = new DoubleArrayBuilder();
+            if (slots[columns[c]] < 0) {
+                slots[columns[c]] = c;
+            }
+        }
+
+        NumberParser parser = new NumberParser();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            boolean inHeader = true;
+
+            while (position < size) {
+                long remaining = size - position;
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, remaining));
+                int limit = buffer.limit();
+                boolean lastWindow = limit == remaining;
+                if (!lastWindow) {
+                    // Stop after the last complete record in this window
+                    while (limit > 0 && buffer.get(limit - 1) != '\n') limit--;
+                    if (limit == 0) {
+                        throw new IOException("CSV record larger than " + windowSize + " bytes");
+                    }
+                }
+
+                int recordStart = 0;
+                int fieldStart = 0;
+                int field = 0;
+                if (position == 0 && hasUtf8Bom(buffer, limit)) {
+                    recordStart = fieldStart = 3;
+                }
+
+                for (int i = fieldStart; i < limit; i++) {
+                    byte b = buffer.get(i);
+                    if (b == ',') {
+                        if (!inHeader && field <= maxColumn && slots[field] >= 0) {
+                            addIfNumeric(parser, builders[slots[field]], stats[slots[field]], buffer, fieldStart, i);
+                        }
+                        field++;
+                        fieldStart = i + 1;
+                    } else if (b == '\n') {
+                        if (!inHeader) {
+                            if (field <= maxColumn && slots[field] >= 0) {
+                                addIfNumeric(parser, builders[slots[field]], stats[slots[field]], buffer, fieldStart, stripCarriageReturn(buffer, fieldStart, i));
+                            }
+                            if (field < maxColumn) {
+                                recordMissing(slots, stats, field);
+                            }
+                        }
+                        inHeader = false;
+                        field = 0;
+                        recordStart = fieldStart = i + 1;
+                    } else if (b == '"') {
+                        if (!inHeader) {
+                            undoPartialRecord(parser, slots, builders, stats, buffer, recordStart, i);
+                        }
+                        fallBackToOpenCsv(channel, position + recordStart, inHeader, columns, builders, stats);
+                        return toArrays(columns, slots, builders, stats);
+                    }
+                }
+
+                // Final record without a trailing newline
+                if (lastWindow && recordStart < limit && !inHeader) {
+                    if (field <= maxColumn && slots[field] >= 0) {
+                        addIfNumeric(parser, builders[slots[field]], stats[slots[field]], buffer, fieldStart, stripCarriageReturn(buffer, fieldStart, limit));
+                    }
+                    if (field < maxColumn) {
+                        recordMissing(slots, stats, field);
+                    }
+                }
+                position += limit;
+            }
+        }
+        return toArrays(columns, slots, builders, stats);
+    }
+
+    private static void addIfNumeric(NumberParser parser, DoubleArrayBuilder builder, ColumnStats stats,
+            ByteBuffer buffer, int from, int to) {
+        boolean parsed = parser.parse(buffer, from, to);
+        if (parsed) {
+            builder.add(parser.value());
+        }
+        stats.record(parsed, parser);
+    }
+
+    // Counts the wanted fields past the last one present in a short record
+    private static void recordMissing(int[] slots, ColumnStats[] stats, int lastField) {
+        for (int field = lastField + 1; field < slots.length; field++) {
+            if (slots[field] >= 0) {
+                stats[slots[field]].recordMissing();
+            }
+        }
+    }
+
+    // Removes values already taken from the fields of a record that opencsv is about to re-read.
+    // Parsing is deterministic, so re-parsing tells exactly which fields produced a value.
+    private static void undoPartialRecord(NumberParser parser, int[] slots, DoubleArrayBuilder[] builders,
+            ColumnStats[] stats, ByteBuffer buffer, int recordStart, int quoteIndex) {
+        int field = 0;
+        int fieldStart = recordStart;
+        for (int i = recordStart; i < quoteIndex; i++) {
+            if (buffer.get(i) == ',') {
+                if (field < slots.length && slots[field] >= 0) {
+                    boolean parsed = parser.parse(buffer, fieldStart, i);
+                    if (parsed) {
+                        builders[slots[field]].removeLast();
+                    }
+                    stats[slots[field]].unrecord(parsed, parser);
+                }
+                field++;
+                fieldStart = i + 1;
+            }
+        }
+    }
+
+    private static int stripCarriageReturn(ByteBuffer buffer, int from, int to) {
+        return to > from && buffer.get(to - 1) == '\r' ? to - 1 : to;
+    }
+
+    private static boolean hasUtf8Bom(ByteBuffer buffer, int limit) {
+        return limit >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF;
+    }
+
+    private static void fallBackToOpenCsv(FileChannel channel, long offset, boolean skipHeader,
+            int[] columns, DoubleArrayBuilder[] builders, ColumnStats[] stats) throws IOException {
+        channel.position(offset);
+        Reader reader = Channels.newReader(channel, Charset.defaultCharset());
+        CsvColumnLoader.appendColumns(reader, skipHeader, columns, builders, stats);
+    }
+
+    private static double[][] toArrays(int[] columns, int[] slots, DoubleArrayBuilder[] builders, ColumnStats[] stats) {
+        double[][] result = new double[columns.length][];
+        for (int c = 0; c < columns.length; c++) {
+            int slot = slots[columns[c]];
+            if (slot == c) {
+                result[c] = builders[c].toArray();
+            } else {
+                // Repeated column: only the first occurrence was scanned
+                result[c] = result[slot].clone();
+                stats[c].copyFrom(stats[slot]);
+            }
+        }
+        return result;
+    }
+}
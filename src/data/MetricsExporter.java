@@ -0,0 +1,26 @@
+package data;
+
+import engine.SortMetrics;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+// Appends sort metrics to a CSV file, writing the header only when the file is new or empty
+public final class MetricsExporter {
+
+    private MetricsExporter() {
+    }
+
+    public static void append(File file, SortMetrics metrics) throws IOException {
+        boolean writeHeader = file.length() == 0;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
+            if (writeHeader) {
+                writer.write(SortMetrics.CSV_HEADER);
+                writer.newLine();
+            }
+            writer.write(metrics.toCsvRow());
+            writer.newLine();
+        }
+    }
+}
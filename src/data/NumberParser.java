@@ -0,0 +1,256 @@
+package data;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Single-pass decimal parser for CSV cells, either Strings or mapped bytes.
+// Invalid input is reported through the return value, never an exception.
+// Plain decimals that fit the exact fast path never allocate; anything else
+// Double.parseDouble would accept (long mantissas, NaN, hex, suffixes) falls
+// back to it. Not thread-safe: the last parsed value is kept in the instance.
+public final class NumberParser {
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    private double value;
+    private boolean empty;
+
+    // Value of the last successful parse
+    public double value() {
+        return value;
+    }
+
+    // Whether the last input was null or blank rather than malformed
+    public boolean wasEmpty() {
+        return empty;
+    }
+
+    public boolean parse(CharSequence text) {
+        if (text == null) {
+            empty = true;
+            return false;
+        }
+        return parse(text, 0, text.length());
+    }
+
+    // Parses characters [from, to), ignoring surrounding whitespace the same way String.trim() does
+    public boolean parse(CharSequence text, int from, int to) {
+        while (from < to && text.charAt(from) <= ' ') from++;
+        while (to > from && text.charAt(to - 1) <= ' ') to--;
+        empty = from == to;
+        if (empty) return false;
+
+        int i = from;
+        char c = text.charAt(i);
+        boolean negative = c == '-';
+        if (negative || c == '+') i++;
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean truncated = false;
+
+        while (i < to && (c = text.charAt(i)) >= '0' && c <= '9') {
+            anyDigit = true;
+            if (digits < MAX_MANTISSA_DIGITS) {
+                if (mantissa != 0 || c != '0') {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                }
+            } else {
+                exponent++;
+                truncated |= c != '0';
+            }
+            i++;
+        }
+        if (i < to && text.charAt(i) == '.') {
+            i++;
+            while (i < to && (c = text.charAt(i)) >= '0' && c <= '9') {
+                anyDigit = true;
+                if (digits < MAX_MANTISSA_DIGITS) {
+                    if (mantissa != 0 || c != '0') {
+                        mantissa = mantissa * 10 + (c - '0');
+                        digits++;
+                    }
+                    exponent--;
+                } else {
+                    truncated |= c != '0';
+                }
+                i++;
+            }
+        }
+        if (anyDigit && i < to && ((c = text.charAt(i)) == 'e' || c == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && ((c = text.charAt(i)) == '-' || c == '+')) {
+                negativeExponent = c == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int explicitExponent = 0;
+            while (i < to && (c = text.charAt(i)) >= '0' && c <= '9') {
+                if (explicitExponent < 100_000) {
+                    explicitExponent = explicitExponent * 10 + (c - '0');
+                }
+                i++;
+            }
+            if (i == exponentStart) return false;
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (i != to || !anyDigit) {
+            return looksLikeJavaLiteral(text, from, to) && parseSlow(text.subSequence(from, to).toString());
+        }
+        return finish(negative, mantissa, exponent, truncated) || parseSlow(text.subSequence(from, to).toString());
+    }
+
+    // Byte variant of parse(CharSequence, int, int), reading the buffer with absolute gets
+    public boolean parse(ByteBuffer buffer, int from, int to) {
+        while (from < to && isWhitespace(buffer.get(from))) from++;
+        while (to > from && isWhitespace(buffer.get(to - 1))) to--;
+        empty = from == to;
+        if (empty) return false;
+
+        int i = from;
+        byte c = buffer.get(i);
+        boolean negative = c == '-';
+        if (negative || c == '+') i++;
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean truncated = false;
+
+        while (i < to && (c = buffer.get(i)) >= '0' && c <= '9') {
+            anyDigit = true;
+            if (digits < MAX_MANTISSA_DIGITS) {
+                if (mantissa != 0 || c != '0') {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                }
+            } else {
+                exponent++;
+                truncated |= c != '0';
+            }
+            i++;
+        }
+        if (i < to && buffer.get(i) == '.') {
+            i++;
+            while (i < to && (c = buffer.get(i)) >= '0' && c <= '9') {
+                anyDigit = true;
+                if (digits < MAX_MANTISSA_DIGITS) {
+                    if (mantissa != 0 || c != '0') {
+                        mantissa = mantissa * 10 + (c - '0');
+                        digits++;
+                    }
+                    exponent--;
+                } else {
+                    truncated |= c != '0';
+                }
+                i++;
+            }
+        }
+        if (anyDigit && i < to && ((c = buffer.get(i)) == 'e' || c == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < to && ((c = buffer.get(i)) == '-' || c == '+')) {
+                negativeExponent = c == '-';
+                i++;
+            }
+            int exponentStart = i;
+            int explicitExponent = 0;
+            while (i < to && (c = buffer.get(i)) >= '0' && c <= '9') {
+                if (explicitExponent < 100_000) {
+                    explicitExponent = explicitExponent * 10 + (c - '0');
+                }
+                i++;
+            }
+            if (i == exponentStart) return false;
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (i != to || !anyDigit) {
+            return looksLikeJavaLiteral(buffer, from, to) && parseSlow(buffer, from, to);
+        }
+        return finish(negative, mantissa, exponent, truncated) || parseSlow(buffer, from, to);
+    }
+
+    // Computes the value when the fast path is exact, otherwise returns false
+    private boolean finish(boolean negative, long mantissa, int exponent, boolean truncated) {
+        if (mantissa == 0) {
+            value = negative ? -0.0 : 0.0;
+            return true;
+        }
+        if (!truncated && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+            // Both operands are exact doubles, so one IEEE operation rounds correctly
+            double result = exponent < 0
+                    ? mantissa / POWERS_OF_TEN[-exponent]
+                    : mantissa * POWERS_OF_TEN[exponent];
+            value = negative ? -result : result;
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean looksLikeJavaLiteral(CharSequence text, int from, int to) {
+        char first = text.charAt(from);
+        if (first == '-' || first == '+') {
+            if (++from == to) return false;
+            first = text.charAt(from);
+        }
+        if (first == 'N' || first == 'I') return true;
+        char last = text.charAt(to - 1);
+        if (last == 'd' || last == 'D' || last == 'f' || last == 'F') return true;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == 'x' || c == 'X') return true;
+        }
+        return false;
+    }
+
+    // NaN, Infinity, hex floats and d/f suffixes are valid for Double.parseDouble
+    private static boolean looksLikeJavaLiteral(ByteBuffer buffer, int from, int to) {
+        byte first = buffer.get(from);
+        if (first == '-' || first == '+') {
+            if (++from == to) return false;
+            first = buffer.get(from);
+        }
+        if (first == 'N' || first == 'I') return true;
+        byte last = buffer.get(to - 1);
+        if (last == 'd' || last == 'D' || last == 'f' || last == 'F') return true;
+        for (int i = from; i < to; i++) {
+            byte c = buffer.get(i);
+            if (c == 'x' || c == 'X') return true;
+        }
+        return false;
+    }
+
+    private boolean parseSlow(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(from + i);
+        }
+        return parseSlow(new String(bytes, StandardCharsets.ISO_8859_1));
+    }
+
+    // Only reached for rare literals, so the exception path stays off the common case
+    private boolean parseSlow(String literal) {
+        try {
+            value = Double.parseDouble(literal);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+}
@@ -0,0 +1,32 @@
+package data;
+
+// One entry of a row sort key list: a column, its direction, and whether it
+// is compared as numbers or as text
+public final class SortKey {
+
+    private final int column;
+    private final boolean descending;
+    private final boolean lexical;
+
+    public SortKey(int column, boolean descending, boolean lexical) {
+        if (column < 0) {
+            throw new IllegalArgumentException("Column index must not be negative: " + column);
+        }
+        this.column = column;
+        this.descending = descending;
+        this.lexical = lexical;
+    }
+
+    public int getColumn() {
+        return column;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    // Text order instead of numeric order; numeric keys sort cells that do not parse last
+    public boolean isLexical() {
+        return lexical;
+    }
+}
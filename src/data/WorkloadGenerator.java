@@ -0,0 +1,204 @@
+package data;
+
+import engine.SortJob;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Seeded, reproducible workloads for the sorts. Values are produced in order,
+// one chunk at a time, so a file can be far larger than memory: the same
+// distribution, size, seed and parameter always give the same sequence,
+// whether generated into an array or streamed to disk. Binary files hold raw
+// big-endian doubles, the layout of the external sort's run files.
+public final class WorkloadGenerator {
+
+    // Largest array the JVM reliably allocates
+    public static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final int CHUNK_SIZE = 1 << 16;
+    private static final int MAX_ZIPF_RANKS = 1 << 24;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final Distribution distribution;
+    private final long size;
+    private final int parameter;
+    private final SplittableRandom random;
+    // Cumulative weights of the Zipf ranks
+    private double[] zipfWeights;
+    // Ascending perturbed positions, and the next one not yet reached
+    private long[] perturbed;
+    private int nextPerturbed;
+    private long position;
+
+    public WorkloadGenerator(Distribution distribution, long size, long seed) {
+        this(distribution, size, seed, distribution.defaultParameter(size));
+    }
+
+    public WorkloadGenerator(Distribution distribution, long size, long seed, int parameter) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Size must not be negative: " + size);
+        }
+        if (distribution.hasParameter() && parameter < (distribution == Distribution.PERTURBED ? 0 : 1)) {
+            throw new IllegalArgumentException("Invalid parameter for " + distribution + ": " + parameter);
+        }
+        this.distribution = distribution;
+        this.size = size;
+        this.parameter = parameter;
+        this.random = new SplittableRandom(seed);
+        switch (distribution) {
+            case ZIPF -> {
+                if (parameter > MAX_ZIPF_RANKS) {
+                    throw new IllegalArgumentException("At most " + MAX_ZIPF_RANKS + " Zipf ranks: " + parameter);
+                }
+                zipfWeights = new double[parameter];
+                double total = 0;
+                for (int rank = 1; rank <= parameter; rank++) {
+                    total += 1.0 / rank;
+                    zipfWeights[rank - 1] = total;
+                }
+            }
+            case PERTURBED -> {
+                if (parameter > size) {
+                    throw new IllegalArgumentException("More perturbations than values: " + parameter);
+                }
+                perturbed = new long[parameter];
+                for (int k = 0; k < parameter; k++) {
+                    perturbed[k] = random.nextLong(size);
+                }
+                Arrays.sort(perturbed);
+            }
+            default -> {
+            }
+        }
+    }
+
+    // Whole workload in one array, with the distribution's default parameter
+    public static double[] generate(Distribution distribution, int size, long seed) {
+        return new WorkloadGenerator(distribution, size, seed).generate();
+    }
+
+    // All values not yet produced, in one array
+    public double[] generate() {
+        long remaining = size - position;
+        if (remaining > MAX_ARRAY_SIZE) {
+            throw new IllegalArgumentException("Too many values for one array: " + remaining);
+        }
+        double[] values = new double[(int) remaining];
+        next(values);
+        return values;
+    }
+
+    // Fills the start of chunk with the next values; returns how many, 0 at the end.
+    // Stops with CancellationException once a job attached to the thread is cancelled.
+    public int next(double[] chunk) {
+        SortJob.checkCancelled();
+        int count = (int) Math.min(chunk.length, size - position);
+        long first = position;
+        switch (distribution) {
+            case UNIFORM -> {
+                for (int i = 0; i < count; i++) chunk[i] = random.nextDouble();
+            }
+            case GAUSSIAN -> {
+                for (int i = 0; i < count; i++) chunk[i] = random.nextGaussian();
+            }
+            case ZIPF -> {
+                double total = zipfWeights[zipfWeights.length - 1];
+                for (int i = 0; i < count; i++) chunk[i] = zipfRank(random.nextDouble() * total);
+            }
+            case SORTED -> {
+                for (int i = 0; i < count; i++) chunk[i] = first + i;
+            }
+            case REVERSED -> {
+                for (int i = 0; i < count; i++) chunk[i] = size - 1 - (first + i);
+            }
+            case SAWTOOTH -> {
+                for (int i = 0; i < count; i++) chunk[i] = (first + i) % parameter;
+            }
+            case FEW_UNIQUE -> {
+                for (int i = 0; i < count; i++) chunk[i] = random.nextInt(parameter);
+            }
+            case PERTURBED -> {
+                for (int i = 0; i < count; i++) chunk[i] = first + i;
+                // Positions drawn twice are overwritten twice, keeping the sequence deterministic
+                while (nextPerturbed < perturbed.length && perturbed[nextPerturbed] < first + count) {
+                    chunk[(int) (perturbed[nextPerturbed++] - first)] = random.nextDouble() * size;
+                }
+            }
+        }
+        position += count;
+        return count;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    // One-column CSV with a header row. Each chunk is formatted into one
+    // builder and written as a single block of bytes; whole numbers are
+    // written without a fraction.
+    public void writeCsv(File file, String header) throws IOException {
+        boolean integral = distribution.isIntegral();
+        String newLine = System.lineSeparator();
+        double[] chunk = new double[CHUNK_SIZE];
+        StringBuilder text = new StringBuilder(CHUNK_SIZE * 24);
+        text.append(header).append(newLine);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), WRITE_BUFFER_SIZE)) {
+            int count;
+            while ((count = next(chunk)) > 0) {
+                for (int i = 0; i < count; i++) {
+                    if (integral) {
+                        text.append((long) chunk[i]);
+                    } else {
+                        text.append(chunk[i]);
+                    }
+                    text.append(newLine);
+                }
+                out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+                text.setLength(0);
+            }
+            out.write(text.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    // Raw doubles, written a chunk at a time through one direct buffer
+    public void writeBinary(File file) throws IOException {
+        double[] chunk = new double[CHUNK_SIZE];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE * Double.BYTES);
+        DoubleBuffer doubles = buffer.asDoubleBuffer();
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.setLength(0);
+            FileChannel channel = out.getChannel();
+            int count;
+            while ((count = next(chunk)) > 0) {
+                doubles.clear();
+                doubles.put(chunk, 0, count);
+                buffer.clear();
+                buffer.limit(count * Double.BYTES);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+    }
+
+    // Smallest rank whose cumulative weight exceeds target
+    private int zipfRank(double target) {
+        int low = 0;
+        int high = zipfWeights.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (zipfWeights[mid] <= target) low = mid + 1;
+            else high = mid;
+        }
+        return low + 1;
+    }
+}
@@ -0,0 +1,67 @@
+package engine;
+
+import java.util.Arrays;
+
+// Timings of repeated runs of one algorithm on identical copies of one input
+public final class BenchmarkResult {
+
+    private final String algorithm;
+    private final int size;
+    private final long[] runNanos;
+    private final long[] sortedNanos;
+
+    BenchmarkResult(String algorithm, int size, long[] runNanos) {
+        this.algorithm = algorithm;
+        this.size = size;
+        this.runNanos = runNanos;
+        this.sortedNanos = runNanos.clone();
+        Arrays.sort(sortedNanos);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getRuns() {
+        return runNanos.length;
+    }
+
+    // Wall time of each measured run in milliseconds, in run order
+    public double[] getRunMillis() {
+        double[] millis = new double[runNanos.length];
+        for (int i = 0; i < millis.length; i++) {
+            millis[i] = runNanos[i] / 1_000_000.0;
+        }
+        return millis;
+    }
+
+    public double getMinMillis() {
+        return sortedNanos[0] / 1_000_000.0;
+    }
+
+    public double getMaxMillis() {
+        return sortedNanos[sortedNanos.length - 1] / 1_000_000.0;
+    }
+
+    public double getMeanMillis() {
+        double sum = 0;
+        for (long nanos : runNanos) {
+            sum += nanos;
+        }
+        return sum / runNanos.length / 1_000_000.0;
+    }
+
+    public double getMedianMillis() {
+        return percentileMillis(50);
+    }
+
+    // Nearest-rank percentile of the run times
+    public double percentileMillis(double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.length);
+        return sortedNanos[Math.max(0, Math.min(sortedNanos.length - 1, rank - 1))] / 1_000_000.0;
+    }
+}
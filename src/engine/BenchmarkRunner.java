@@ -0,0 +1,89 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Times an algorithm over several runs, each on a fresh copy of the same input.
+// Warmup runs are executed the same way but not recorded.
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static BenchmarkResult run(String algorithm, double[] input, int warmups, int runs) {
+        if (runs < 1) {
+            throw new IllegalArgumentException("At least one measured run is required: " + runs);
+        }
+        double[] copy = new double[input.length];
+        for (int i = 0; i < warmups; i++) {
+            System.arraycopy(input, 0, copy, 0, input.length);
+            SortEngine.sort(algorithm, copy);
+        }
+        long[] runNanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            System.arraycopy(input, 0, copy, 0, input.length);
+            runNanos[i] = SortEngine.timeSort(algorithm, copy);
+        }
+        return new BenchmarkResult(algorithm, input.length, runNanos);
+    }
+
+    // Benchmarks every algorithm on identical copies of one input and returns the
+    // results fastest median first. Concurrently, each algorithm gets its own thread
+    // and all start together, so they compete for cores and memory bandwidth;
+    // otherwise they run one after another, each with its own warmup. Each racing
+    // thread gets a child of the caller's SortJob, so cancelling it stops every
+    // algorithm at its next check, and the caller's progress counts the
+    // algorithms that have finished.
+    public static List<BenchmarkResult> race(String[] algorithms, double[] input, int warmups, int runs,
+            boolean concurrent) throws InterruptedException {
+        List<BenchmarkResult> results = new ArrayList<>();
+        SortJob job = SortJob.current();
+        if (!concurrent) {
+            for (String algorithm : algorithms) {
+                if (job != null) job.setPhase("Timing " + algorithm);
+                results.add(run(algorithm, input, warmups, runs));
+            }
+        } else {
+            if (job != null) {
+                job.setPhase("Racing " + algorithms.length + " algorithms");
+                job.start(algorithms.length);
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, algorithms.length));
+            CountDownLatch startSignal = new CountDownLatch(1);
+            try {
+                List<Future<BenchmarkResult>> futures = new ArrayList<>();
+                for (String algorithm : algorithms) {
+                    futures.add(pool.submit(() -> {
+                        startSignal.await();
+                        if (job == null) {
+                            return run(algorithm, input, warmups, runs);
+                        }
+                        BenchmarkResult[] result = new BenchmarkResult[1];
+                        job.child().run(() -> result[0] = run(algorithm, input, warmups, runs));
+                        job.advance(1);
+                        return result[0];
+                    }));
+                }
+                startSignal.countDown();
+                for (Future<BenchmarkResult> future : futures) {
+                    results.add(future.get());
+                }
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException(ex.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        results.sort(Comparator.comparingDouble(BenchmarkResult::getMedianMillis));
+        return results;
+    }
+}
@@ -0,0 +1,59 @@
+package engine;
+
+// Tracer that only counts operations and tracks the deepest recursion level.
+// A traced sort has no other checks, so the tracer stops it when the SortJob
+// it was created under is cancelled.
+public final class CountingTracer implements SortTracer {
+
+    private final SortJob job = SortJob.current();
+    private long comparisons;
+    private long swaps;
+    private long writes;
+    private int depth;
+    private int maxDepth;
+
+    @Override
+    public void compare(int i, int j) {
+        if ((++comparisons & (SortJob.CHECK_INTERVAL - 1)) == 0 && job != null) {
+            job.checkpoint();
+        }
+    }
+
+    @Override
+    public void swap(int i, int j) {
+        swaps++;
+    }
+
+    @Override
+    public void write(int index, double value) {
+        writes++;
+    }
+
+    @Override
+    public void enter() {
+        if (++depth > maxDepth) {
+            maxDepth = depth;
+        }
+    }
+
+    @Override
+    public void exit() {
+        depth--;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getSwaps() {
+        return swaps;
+    }
+
+    public long getWrites() {
+        return writes;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+}
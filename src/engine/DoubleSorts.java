@@ -0,0 +1,592 @@
+package engine;
+
+// In-place sorting algorithms over double[]. Ranges are half-open [from, to).
+// The whole-array entry points check the SortJob attached to the calling
+// thread, if any; the range methods used inside other algorithms take it as a
+// parameter, null when nothing is watching.
+final class DoubleSorts {
+
+    // Room for the pending runs of a natural merge sort; the balance rule keeps
+    // run lengths growing at least like Fibonacci numbers, so int-sized arrays
+    // never need more
+    private static final int RUN_STACK_SIZE = 64;
+    // Selection leaves ranges shorter than this to insertion sort
+    static final int INSERTION_THRESHOLD = 16;
+    // Ranges longer than this pick the introsort pivot from nine samples
+    static final int NINTHER_THRESHOLD = 128;
+
+    private DoubleSorts() {
+    }
+
+    static void insertionSort(double[] values) {
+        SortJob job = SortJob.current();
+        // Inserting row i shifts about i / 2 values, so that is what progress counts
+        if (job != null) job.start((long) values.length * values.length / 4);
+        insertionSort(values, 0, values.length, job);
+    }
+
+    static void insertionSort(double[] values, int from, int to) {
+        insertionSort(values, from, to, null);
+    }
+
+    private static void insertionSort(double[] values, int from, int to, SortJob job) {
+        for (int i = from + 1; i < to; i++) {
+            if (job != null && (i & (SortJob.CHECK_INTERVAL - 1)) == 0) {
+                job.advance((long) (i - from) * SortJob.CHECK_INTERVAL / 2);
+            }
+            double key = values[i];
+            int j = i - 1;
+            while (j >= from && values[j] > key) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = key;
+        }
+    }
+
+    static void binaryInsertionSort(double[] values) {
+        SortJob job = SortJob.current();
+        if (job != null) job.start((long) values.length * values.length / 4);
+        binaryInsertionSort(values, 0, values.length, job);
+    }
+
+    static void binaryInsertionSort(double[] values, int from, int to) {
+        binaryInsertionSort(values, from, to, null);
+    }
+
+    // Elements already in order cost one comparison; the others a binary search
+    // for the first greater value (keeping equal values stable) and one block move
+    private static void binaryInsertionSort(double[] values, int from, int to, SortJob job) {
+        for (int i = from + 1; i < to; i++) {
+            if (job != null && (i & (SortJob.CHECK_INTERVAL - 1)) == 0) {
+                job.advance((long) (i - from) * SortJob.CHECK_INTERVAL / 2);
+            }
+            double key = values[i];
+            if (values[i - 1] <= key) continue;
+            int position = upperBound(values, from, i - 1, key);
+            System.arraycopy(values, position, values, position + 1, i - position);
+            values[position] = key;
+        }
+    }
+
+    static void pairInsertionSort(double[] values) {
+        SortJob job = SortJob.current();
+        if (job != null) job.start((long) values.length * values.length / 4);
+        pairInsertionSort(values, 0, values.length, job);
+    }
+
+    static void pairInsertionSort(double[] values, int from, int to) {
+        pairInsertionSort(values, from, to, null);
+    }
+
+    // Takes the next two elements, shifts everything above the larger one up by
+    // two, then everything above the smaller one by one. When both are equal the
+    // later one is placed higher, which keeps the sort stable.
+    private static void pairInsertionSort(double[] values, int from, int to, SortJob job) {
+        int i = from + 1;
+        for (; i < to - 1; i += 2) {
+            // i moves two at a time, so i >> 1 counts pairs
+            if (job != null && ((i >> 1) & (SortJob.CHECK_INTERVAL - 1)) == 0) {
+                job.advance((long) (i - from) * SortJob.CHECK_INTERVAL);
+            }
+            double larger = values[i];
+            double smaller = values[i + 1];
+            if (larger <= smaller) {
+                larger = smaller;
+                smaller = values[i];
+            }
+            int j = i - 1;
+            while (j >= from && values[j] > larger) {
+                values[j + 2] = values[j];
+                j--;
+            }
+            values[j + 2] = larger;
+            while (j >= from && values[j] > smaller) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = smaller;
+        }
+        // An odd element left over is inserted on its own
+        if (i == to - 1) {
+            double key = values[i];
+            int j = i - 1;
+            while (j >= from && values[j] > key) {
+                values[j + 1] = values[j];
+                j--;
+            }
+            values[j + 1] = key;
+        }
+    }
+
+    // Ranges up to the small-range cutoff, with the configured insertion sort
+    static void smallSort(double[] values, int from, int to) {
+        switch (SortEngine.getSmallSort()) {
+            case BINARY -> binaryInsertionSort(values, from, to, null);
+            case PAIR -> pairInsertionSort(values, from, to, null);
+            default -> insertionSort(values, from, to, null);
+        }
+    }
+
+    // Gapped insertion sort over gaps from GapSequence, largest first. Each pass
+    // walks the array front to back, advancing all gap chains together, so it
+    // reads two sequential streams instead of striding through one chain at a time.
+    static void shellSort(double[] values, int[] gaps) {
+        int n = values.length;
+        // Below the cutoff the gap passes cost more than they save
+        if (n <= SortEngine.getSmallSortCutoff()) {
+            smallSort(values, 0, n);
+            return;
+        }
+        SortJob job = SortJob.current();
+        // One step per gap pass
+        if (job != null) job.start(gaps.length);
+        for (int gap : gaps) {
+            for (int i = gap; i < n; i++) {
+                if (job != null && (i & (SortJob.CHECK_INTERVAL - 1)) == 0) job.checkpoint();
+                double temp = values[i];
+                int j = i;
+                while (j >= gap && values[j - gap] > temp) {
+                    values[j] = values[j - gap];
+                    j -= gap;
+                }
+                values[j] = temp;
+            }
+            if (job != null) job.advance(1);
+        }
+    }
+
+    static void mergeSort(double[] values) {
+        if (values.length <= 1) return;
+        // One scratch buffer shared by every merge
+        double[] scratch = new double[values.length];
+        SortJob job = SortJob.current();
+        if (job != null) job.start(mergeSteps(values.length));
+        mergeSort(values, scratch, 0, values.length, job);
+    }
+
+    // Values moved by a bottom-up merge sort of n values: the insertion-sorted
+    // blocks, then every merge pass
+    static long mergeSteps(int n) {
+        long passes = 1;
+        for (int width = SortEngine.getSmallSortCutoff(); width < n; width = width <= n / 2 ? 2 * width : n) {
+            passes++;
+        }
+        return passes * n;
+    }
+
+    // Bottom-up merge sort of [from, to): blocks of the small-range cutoff sorted
+    // by smallSort, then passes merging runs of doubling width. Never recurses
+    // and allocates nothing; the scratch array is only used over the same range,
+    // so disjoint ranges may share one.
+    static void mergeSort(double[] values, double[] scratch, int from, int to, SortJob job) {
+        int block = SortEngine.getSmallSortCutoff();
+        for (int lo = from; lo < to; lo += block) {
+            smallSort(values, lo, Math.min(to, lo + block));
+        }
+        int n = to - from;
+        if (job != null) job.advance(n);
+        for (int width = block; width < n; width = width <= n / 2 ? 2 * width : n) {
+            for (int lo = from; lo < to - width; ) {
+                int mid = lo + width;
+                int hi = mid + Math.min(width, to - mid);
+                merge(values, scratch, lo, mid, hi);
+                lo = hi;
+            }
+            if (job != null) job.advance(n);
+        }
+    }
+
+    // Natural merge sort for partially sorted data. Ascending runs are taken as
+    // found and strictly descending ones reversed; runs shorter than the
+    // small-range cutoff are extended by smallSort. Runs wait on a stack and are merged
+    // TimSort-style, keeping neighbouring lengths balanced.
+    static void naturalMergeSort(double[] values) {
+        int n = values.length;
+        if (n <= 1) return;
+        double[] scratch = new double[n];
+        int[] runBase = new int[RUN_STACK_SIZE];
+        int[] runLength = new int[RUN_STACK_SIZE];
+        int minRun = SortEngine.getSmallSortCutoff();
+        int runs = 0;
+        // Estimated as for random input; presorted input finishes early
+        SortJob job = SortJob.current();
+        if (job != null) job.start(mergeSteps(n));
+        for (int lo = 0; lo < n; ) {
+            int end = runEnd(values, lo, n);
+            if (end - lo < minRun) {
+                end = Math.min(n, lo + minRun);
+                smallSort(values, lo, end);
+            }
+            runBase[runs] = lo;
+            runLength[runs] = end - lo;
+            if (job != null) job.advance(end - lo);
+            runs = mergeRuns(values, scratch, runBase, runLength, runs + 1, false, job);
+            lo = end;
+        }
+        mergeRuns(values, scratch, runBase, runLength, runs, true, job);
+    }
+
+    // End of the run starting at lo, reversing it first if it is strictly descending
+    private static int runEnd(double[] values, int lo, int n) {
+        int end = lo + 1;
+        if (end == n) return end;
+        if (values[end++] < values[lo]) {
+            while (end < n && values[end] < values[end - 1]) end++;
+            for (int i = lo, j = end - 1; i < j; i++, j--) {
+                swap(values, i, j);
+            }
+        } else {
+            while (end < n && values[end] >= values[end - 1]) end++;
+        }
+        return end;
+    }
+
+    // Merges adjacent runs on the stack until, from the top down, every run is
+    // longer than the next two together (or all of them when finishing), and
+    // returns the new stack size
+    private static int mergeRuns(double[] values, double[] scratch, int[] runBase, int[] runLength,
+            int runs, boolean all, SortJob job) {
+        while (runs > 1) {
+            int n = runs - 2;
+            if (all) {
+                if (n > 0 && runLength[n - 1] < runLength[n + 1]) n--;
+            } else if (n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1]
+                    || n > 1 && runLength[n - 2] <= runLength[n - 1] + runLength[n]) {
+                if (runLength[n - 1] < runLength[n + 1]) n--;
+            } else if (runLength[n] > runLength[n + 1]) {
+                break;
+            }
+            merge(values, scratch, runBase[n], runBase[n + 1], runBase[n + 1] + runLength[n + 1]);
+            runLength[n] += runLength[n + 1];
+            if (job != null) job.advance(runLength[n]);
+            if (n == runs - 3) {
+                runBase[n + 1] = runBase[n + 2];
+                runLength[n + 1] = runLength[n + 2];
+            }
+            runs--;
+        }
+        return runs;
+    }
+
+    // Merges the sorted runs [lo, mid) and [mid, hi). Runs that are already in
+    // order are left alone, as are leading left and trailing right elements that
+    // already sit in their final place; only the rest of the left run is copied
+    // out, into the same positions of scratch.
+    private static void merge(double[] values, double[] scratch, int lo, int mid, int hi) {
+        if (values[mid - 1] <= values[mid]) return;
+        lo = upperBound(values, lo, mid, values[mid]);
+        hi = lowerBound(values, mid, hi, values[mid - 1]);
+        System.arraycopy(values, lo, scratch, lo, mid - lo);
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            if (scratch[i] <= values[j]) {
+                values[k++] = scratch[i++];
+            } else {
+                values[k++] = values[j++];
+            }
+        }
+        while (i < mid) values[k++] = scratch[i++];
+    }
+
+    // First index in [from, to) whose value is not less than key
+    static int lowerBound(double[] values, int from, int to, double key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (values[mid] < key) from = mid + 1;
+            else to = mid;
+        }
+        return from;
+    }
+
+    // First index in [from, to) whose value is greater than key
+    static int upperBound(double[] values, int from, int to, double key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (values[mid] <= key) from = mid + 1;
+            else to = mid;
+        }
+        return from;
+    }
+
+    static void quickSort(double[] values) {
+        SortJob job = SortJob.current();
+        if (job != null) job.start(values.length);
+        quickSort(values, 0, values.length - 1, job);
+    }
+
+    static void quickSort(double[] values, int low, int high) {
+        quickSort(values, low, high, null);
+    }
+
+    // Recurses into the smaller partition and loops on the larger one so the
+    // stack depth stays logarithmic even when the pivot choice is poor. The
+    // sampled pivot handles presorted input and the three-way partition
+    // handles runs of equal values, both quadratic with a last-element pivot.
+    // Ranges up to the small-range cutoff go to smallSort. Progress counts values
+    // in their final place; ranges shorter than the check interval are sorted
+    // without the job and counted at once.
+    static void quickSort(double[] values, int low, int high, SortJob job) {
+        int cutoff = SortEngine.getSmallSortCutoff();
+        while (low < high) {
+            if (high - low < cutoff) {
+                smallSort(values, low, high + 1);
+                if (job != null) job.advance(high - low + 1);
+                return;
+            }
+            if (job != null && high - low < SortJob.CHECK_INTERVAL) {
+                quickSort(values, low, high, null);
+                job.advance(high - low + 1);
+                return;
+            }
+            choosePivotToHigh(values, low, high);
+            long bounds = partitionThreeWay(values, low, high);
+            int lessEnd = (int) (bounds >>> 32);
+            int greaterStart = (int) bounds + 1;
+            if (job != null) job.advance(greaterStart - lessEnd);
+            if (lessEnd - low < high - greaterStart) {
+                quickSort(values, low, lessEnd - 1, job);
+                low = greaterStart;
+            } else {
+                quickSort(values, greaterStart, high, job);
+                high = lessEnd - 1;
+            }
+        }
+        if (job != null && low == high) job.advance(1);
+    }
+
+    static void introSort(double[] values) {
+        SortJob job = SortJob.current();
+        if (job != null) job.start(values.length);
+        introSort(values, 0, values.length - 1, introDepthLimit(values.length), job);
+    }
+
+    // Quick sort with a ninther pivot that switches to heap sort once the
+    // recursion is deeper than depthLimit, so the worst case stays O(n log n),
+    // and leaves ranges up to the small-range cutoff to smallSort. Progress is
+    // counted as in quickSort.
+    static void introSort(double[] values, int low, int high, int depthLimit, SortJob job) {
+        int cutoff = SortEngine.getSmallSortCutoff();
+        while (high - low >= cutoff) {
+            if (job != null && high - low < SortJob.CHECK_INTERVAL) {
+                introSort(values, low, high, depthLimit, null);
+                job.advance(high - low + 1);
+                return;
+            }
+            if (depthLimit-- == 0) {
+                heapSort(values, low, high + 1);
+                if (job != null) job.advance(high - low + 1);
+                return;
+            }
+            choosePivotToHigh(values, low, high);
+            long bounds = partitionThreeWay(values, low, high);
+            int lessEnd = (int) (bounds >>> 32);
+            int greaterStart = (int) bounds + 1;
+            if (job != null) job.advance(greaterStart - lessEnd);
+            if (lessEnd - low < high - greaterStart) {
+                introSort(values, low, lessEnd - 1, depthLimit, job);
+                low = greaterStart;
+            } else {
+                introSort(values, greaterStart, high, depthLimit, job);
+                high = lessEnd - 1;
+            }
+        }
+        smallSort(values, low, high + 1);
+        if (job != null) job.advance(Math.max(0, high - low + 1));
+    }
+
+    // Dutch flag partition around the pivot at values[high]. Returns the first index
+    // equal to the pivot in the upper 32 bits and the last index equal to it in the lower 32 bits.
+    static long partitionThreeWay(double[] values, int low, int high) {
+        double pivot = values[high];
+        int lt = low;
+        int i = low;
+        int gt = high - 1;
+        while (i <= gt) {
+            double value = values[i];
+            if (value < pivot) {
+                swap(values, lt++, i++);
+            } else if (value > pivot) {
+                swap(values, i, gt--);
+            } else {
+                i++;
+            }
+        }
+        swap(values, gt + 1, high);
+        return ((long) lt << 32) | ((gt + 1) & 0xFFFFFFFFL);
+    }
+
+    private static void medianOfThreeToHigh(double[] values, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (values[mid] < values[low]) swap(values, mid, low);
+        if (values[high] < values[low]) swap(values, high, low);
+        if (values[mid] < values[high]) swap(values, mid, high);
+    }
+
+    // Median of three on small ranges, Tukey's ninther (median of three medians) on large ones
+    static void choosePivotToHigh(double[] values, int low, int high) {
+        int size = high - low + 1;
+        if (size <= NINTHER_THRESHOLD) {
+            medianOfThreeToHigh(values, low, high);
+            return;
+        }
+        int eighth = size / 8;
+        int mid = (low + high) >>> 1;
+        int first = median(values, low, low + eighth, low + 2 * eighth);
+        int middle = median(values, mid - eighth, mid, mid + eighth);
+        int last = median(values, high - 2 * eighth, high - eighth, high);
+        swap(values, median(values, first, middle, last), high);
+    }
+
+    private static int median(double[] values, int a, int b, int c) {
+        if (values[a] < values[b]) {
+            return values[b] < values[c] ? b : values[a] < values[c] ? c : a;
+        }
+        return values[a] < values[c] ? a : values[b] < values[c] ? c : b;
+    }
+
+    // Heap sort with the configured HeapVariant. Progress counts sift-downs:
+    // about n / arity to build the heap, then one per extraction.
+    static void heapSort(double[] values) {
+        int n = values.length;
+        if (n <= 1) return;
+        SortJob job = SortJob.current();
+        HeapVariant variant = SortEngine.getHeapVariant();
+        int arity = variant.arity();
+        if (job != null) job.start(n / arity + n);
+        for (int i = (n - 2) / arity; i >= 0; i--) {
+            if (job != null && (i & (SortJob.CHECK_INTERVAL - 1)) == 0) job.advance(SortJob.CHECK_INTERVAL);
+            switch (variant) {
+                case RECURSIVE -> heapify(values, n, i);
+                case ITERATIVE, BOUNCE -> siftDown(values, 0, n, i);
+                default -> siftDownArity(values, n, i, arity);
+            }
+        }
+        for (int i = n - 1; i > 0; i--) {
+            if (job != null && (i & (SortJob.CHECK_INTERVAL - 1)) == 0) job.advance(SortJob.CHECK_INTERVAL);
+            double last = values[i];
+            values[i] = values[0];
+            switch (variant) {
+                case RECURSIVE -> {
+                    values[0] = last;
+                    heapify(values, i, 0);
+                }
+                case ITERATIVE -> {
+                    values[0] = last;
+                    siftDown(values, 0, i, 0);
+                }
+                case BOUNCE -> bounce(values, i, last);
+                default -> {
+                    values[0] = last;
+                    siftDownArity(values, i, 0, arity);
+                }
+            }
+        }
+    }
+
+    // Sift-down in a heap of [0, n) where node i has children arity * i + 1 .. arity * i + arity
+    private static void siftDownArity(double[] values, int n, int i, int arity) {
+        double value = values[i];
+        int child;
+        while ((child = arity * i + 1) < n) {
+            int largest = child;
+            for (int c = child + 1, last = Math.min(n, child + arity); c < last; c++) {
+                if (values[c] > values[largest]) largest = c;
+            }
+            if (values[largest] <= value) break;
+            values[i] = values[largest];
+            i = largest;
+        }
+        values[i] = value;
+    }
+
+    // Refills the root of a binary heap of [0, n) with value: the hole goes down
+    // to a leaf along the larger children, then value rises from there
+    private static void bounce(double[] values, int n, double value) {
+        int i = 0;
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && values[child + 1] > values[child]) child++;
+            values[i] = values[child];
+            i = child;
+        }
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (values[parent] >= value) break;
+            values[i] = values[parent];
+            i = parent;
+        }
+        values[i] = value;
+    }
+
+    // Heap sort of [from, to) with an iterative sift-down, the introsort fallback
+    static void heapSort(double[] values, int from, int to) {
+        int n = to - from;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(values, from, n, i);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            swap(values, from, from + i);
+            siftDown(values, from, i, 0);
+        }
+    }
+
+    private static void siftDown(double[] values, int from, int n, int i) {
+        double value = values[from + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && values[from + child + 1] > values[from + child]) child++;
+            if (values[from + child] <= value) break;
+            values[from + i] = values[from + child];
+            i = child;
+        }
+        values[from + i] = value;
+    }
+
+    static void heapify(double[] values, int n, int i) {
+        int largest = i;
+        int left = 2 * i + 1;
+        int right = 2 * i + 2;
+
+        if (left < n && values[left] > values[largest])
+            largest = left;
+        if (right < n && values[right] > values[largest])
+            largest = right;
+
+        if (largest != i) {
+            double swap = values[i];
+            values[i] = values[largest];
+            values[largest] = swap;
+            heapify(values, n, largest);
+        }
+    }
+
+    // heapify for a min-heap, used where the smallest kept value must be at the root
+    static void heapifyMin(double[] values, int n, int i) {
+        int smallest = i;
+        int left = 2 * i + 1;
+        int right = 2 * i + 2;
+
+        if (left < n && values[left] < values[smallest])
+            smallest = left;
+        if (right < n && values[right] < values[smallest])
+            smallest = right;
+
+        if (smallest != i) {
+            double swap = values[i];
+            values[i] = values[smallest];
+            values[smallest] = swap;
+            heapifyMin(values, n, smallest);
+        }
+    }
+
+    static int introDepthLimit(int n) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(Math.max(1, n)));
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double temp = values[i];
+        values[i] = values[j];
+        values[j] = temp;
+    }
+}
@@ -0,0 +1,79 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Gap sequences for Shell Sort. Shell's original halving gaps are all even
+// until the last pass, so odd and even positions are only compared at gap 1
+// and the worst case is quadratic; the others grow by a roughly constant
+// ratio with coprime neighbours. Ciura's gaps are empirically the best known
+// for mid-sized arrays; past 1750 they are extended by a factor of 2.25.
+public enum GapSequence {
+    SHELL("Shell"),
+    CIURA("Ciura"),
+    TOKUDA("Tokuda"),
+    SEDGEWICK("Sedgewick"),
+    PRATT("Pratt");
+
+    private static final int[] CIURA_GAPS = {1, 4, 10, 23, 57, 132, 301, 701, 1750};
+
+    private final String displayName;
+
+    GapSequence(String displayName) {
+        this.displayName = displayName;
+    }
+
+    // Gaps below n, largest first, ending with 1; empty when n < 2
+    public int[] gaps(int n) {
+        List<Long> gaps = new ArrayList<>();
+        switch (this) {
+            case SHELL -> {
+                for (long gap = n / 2; gap > 0; gap /= 2) gaps.add(gap);
+            }
+            case CIURA -> {
+                long gap = 0;
+                for (int ciura : CIURA_GAPS) {
+                    gap = ciura;
+                    gaps.add(gap);
+                }
+                while ((gap = (long) (gap * 2.25)) < n) gaps.add(gap);
+            }
+            case TOKUDA -> {
+                // h(k) = ceil(t(k)) with t(1) = 1 and t(k) = 2.25 t(k - 1) + 1
+                for (double t = 1; t < n; t = 2.25 * t + 1) gaps.add((long) Math.ceil(t));
+            }
+            case SEDGEWICK -> {
+                // 1, then 4^k + 3 * 2^(k - 1) + 1
+                gaps.add(1L);
+                for (int k = 1; (1L << (2 * k)) < n; k++) gaps.add((1L << (2 * k)) + 3 * (1L << (k - 1)) + 1);
+            }
+            case PRATT -> {
+                // Every 2^p 3^q
+                for (long three = 1; three < n; three *= 3) {
+                    for (long gap = three; gap < n; gap *= 2) gaps.add(gap);
+                }
+            }
+        }
+        return gaps.stream()
+                .filter(gap -> gap < n)
+                .sorted(Collections.reverseOrder())
+                .mapToInt(Long::intValue)
+                .toArray();
+    }
+
+    // Sequence named by displayName, ignoring case
+    public static GapSequence fromName(String name) {
+        for (GapSequence sequence : values()) {
+            if (sequence.displayName.equalsIgnoreCase(name.trim())) {
+                return sequence;
+            }
+        }
+        throw new IllegalArgumentException("Unknown gap sequence: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,44 @@
+package engine;
+
+// Heap layouts and sift-downs for Heap Sort. Recursive is the original
+// heapify, one call per level. Iterative moves a hole down instead of
+// swapping. Floyd's bounce walks the hole from the root to a leaf with one
+// comparison per level and sifts the displaced value back up, which saves
+// about half the comparisons since that value almost always belongs near the
+// bottom. The 4-ary and 8-ary heaps are shallower and keep each node's
+// children next to each other, so a sift-down touches fewer cache lines.
+public enum HeapVariant {
+    RECURSIVE("Recursive", 2),
+    ITERATIVE("Iterative", 2),
+    BOUNCE("Bounce", 2),
+    FOUR_ARY("4-ary", 4),
+    EIGHT_ARY("8-ary", 8);
+
+    private final String displayName;
+    private final int arity;
+
+    HeapVariant(String displayName, int arity) {
+        this.displayName = displayName;
+        this.arity = arity;
+    }
+
+    // Children per node
+    public int arity() {
+        return arity;
+    }
+
+    // Variant named by displayName, ignoring case
+    public static HeapVariant fromName(String name) {
+        for (HeapVariant variant : values()) {
+            if (variant.displayName.equalsIgnoreCase(name.trim())) {
+                return variant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown heap variant: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
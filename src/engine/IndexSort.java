@@ -0,0 +1,123 @@
+package engine;
+
+import java.util.Objects;
+
+// Stable sorts of row indexes. Callers extract each sort key into a primitive
+// column once; only the int permutation moves during the sort, so rows of any
+// width are reordered afterwards in a single pass.
+public final class IndexSort {
+
+    // Compares two row indexes
+    public interface IndexComparator {
+        int compare(int a, int b);
+    }
+
+    private static final int BLOCK = 32;
+
+    private IndexSort() {
+    }
+
+    // Row order by keys[0], then keys[1], and so on; descending[k] reverses
+    // keys[k]. NaN marks a missing key and sorts last in either direction.
+    // Rows with equal keys keep their original order.
+    public static int[] order(double[][] keys, boolean[] descending) {
+        if (keys.length != descending.length) {
+            throw new IllegalArgumentException("Expected one direction per key: "
+                    + keys.length + " keys, " + descending.length + " directions");
+        }
+        int rows = keys.length == 0 ? 0 : keys[0].length;
+        for (double[] key : keys) {
+            if (key.length != rows) {
+                throw new IllegalArgumentException("Key columns differ in length");
+            }
+        }
+        return order(rows, (a, b) -> {
+            for (int k = 0; k < keys.length; k++) {
+                int cmp = compareKey(keys[k][a], keys[k][b], descending[k]);
+                if (cmp != 0) return cmp;
+            }
+            return 0;
+        });
+    }
+
+    // Stable permutation of 0..rows-1 under the comparator
+    public static int[] order(int rows, IndexComparator comparator) {
+        int[] index = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            index[i] = i;
+        }
+        sort(index, comparator);
+        return index;
+    }
+
+    // Dense ranks of the strings in natural order, so a lexical key can be
+    // compared as a primitive column: equal strings share a rank, null ranks last
+    public static double[] ranks(String[] values) {
+        int[] index = order(values.length, (a, b) -> {
+            String x = values[a];
+            String y = values[b];
+            if (x == null || y == null) {
+                return x == y ? 0 : x == null ? 1 : -1;
+            }
+            return x.compareTo(y);
+        });
+        double[] ranks = new double[values.length];
+        int rank = 0;
+        for (int i = 0; i < index.length; i++) {
+            if (i > 0 && !Objects.equals(values[index[i]], values[index[i - 1]])) {
+                rank++;
+            }
+            ranks[index[i]] = rank;
+        }
+        return ranks;
+    }
+
+    // Bottom-up merge sort over insertion-sorted blocks, as DoubleSorts.mergeSort
+    static void sort(int[] index, IndexComparator comparator) {
+        int n = index.length;
+        for (int lo = 0; lo < n; lo += BLOCK) {
+            int hi = Math.min(n, lo + BLOCK);
+            for (int i = lo + 1; i < hi; i++) {
+                int row = index[i];
+                int j = i - 1;
+                while (j >= lo && comparator.compare(index[j], row) > 0) {
+                    index[j + 1] = index[j];
+                    j--;
+                }
+                index[j + 1] = row;
+            }
+        }
+        int[] scratch = new int[n];
+        for (int width = BLOCK; width < n; width = width <= n / 2 ? 2 * width : n) {
+            for (int lo = 0; lo < n - width; ) {
+                int mid = lo + width;
+                int hi = mid + Math.min(width, n - mid);
+                merge(index, scratch, lo, mid, hi, comparator);
+                lo = hi;
+            }
+        }
+    }
+
+    private static void merge(int[] index, int[] scratch, int lo, int mid, int hi, IndexComparator comparator) {
+        if (comparator.compare(index[mid - 1], index[mid]) <= 0) return;
+        System.arraycopy(index, lo, scratch, lo, mid - lo);
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            if (comparator.compare(scratch[i], index[j]) <= 0) {
+                index[k++] = scratch[i++];
+            } else {
+                index[k++] = index[j++];
+            }
+        }
+        while (i < mid) index[k++] = scratch[i++];
+    }
+
+    private static int compareKey(double a, double b, boolean descending) {
+        if (a < b) return descending ? 1 : -1;
+        if (a > b) return descending ? -1 : 1;
+        boolean missingA = a != a;
+        boolean missingB = b != b;
+        if (missingA != missingB) return missingA ? 1 : -1;
+        return 0;
+    }
+}
@@ -0,0 +1,32 @@
+package engine;
+
+// Insertion sorts for short ranges. Linear scans back from the new element,
+// shifting as it goes; binary finds the place with a binary search and moves
+// the tail in one System.arraycopy; pair inserts two elements per scan, the
+// larger first, so the smaller one continues from where the larger stopped.
+public enum InsertionVariant {
+    LINEAR("Linear"),
+    BINARY("Binary"),
+    PAIR("Pair");
+
+    private final String displayName;
+
+    InsertionVariant(String displayName) {
+        this.displayName = displayName;
+    }
+
+    // Variant named by displayName, ignoring case
+    public static InsertionVariant fromName(String name) {
+        for (InsertionVariant variant : values()) {
+            if (variant.displayName.equalsIgnoreCase(name.trim())) {
+                return variant;
+            }
+        }
+        throw new IllegalArgumentException("Unknown insertion sort: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
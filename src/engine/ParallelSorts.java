@@ -0,0 +1,177 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Fork-join versions of merge sort and quick sort over double[]. Ranges at or
+// below the cutoff fall back to the sequential algorithms in DoubleSorts.
+// The caller's SortJob is handed to every task, so pool threads report
+// progress to it and stop once it is cancelled.
+final class ParallelSorts {
+
+    private ParallelSorts() {
+    }
+
+    static void mergeSort(double[] values, int cutoff) {
+        if (values.length <= 1) return;
+        double[] scratch = new double[values.length];
+        SortJob job = SortJob.current();
+        if (job != null) job.start(DoubleSorts.mergeSteps(values.length));
+        ForkJoinPool.commonPool().invoke(new MergeSortTask(values, scratch, 0, values.length, cutoff, job));
+    }
+
+    static void quickSort(double[] values, int cutoff) {
+        if (values.length <= 1) return;
+        SortJob job = SortJob.current();
+        if (job != null) job.start(values.length);
+        ForkJoinPool.commonPool().invoke(new QuickSortTask(values, 0, values.length - 1, cutoff, job));
+    }
+
+    // Sorts [from, to) of values, using the same range of scratch for merging
+    private static final class MergeSortTask extends RecursiveAction {
+        private final double[] values;
+        private final double[] scratch;
+        private final int from;
+        private final int to;
+        private final int cutoff;
+        private final SortJob job;
+
+        MergeSortTask(double[] values, double[] scratch, int from, int to, int cutoff, SortJob job) {
+            this.values = values;
+            this.scratch = scratch;
+            this.from = from;
+            this.to = to;
+            this.cutoff = cutoff;
+            this.job = job;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= cutoff) {
+                DoubleSorts.mergeSort(values, scratch, from, to, job);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MergeSortTask(values, scratch, from, mid, cutoff, job),
+                    new MergeSortTask(values, scratch, mid, to, cutoff, job));
+            if (values[mid - 1] > values[mid]) {
+                System.arraycopy(values, from, scratch, from, to - from);
+                new MergeTask(scratch, values, from, mid, mid, to, from, cutoff).compute();
+            }
+            if (job != null) job.advance(to - from);
+        }
+    }
+
+    // Merges source[leftFrom, leftTo) and source[rightFrom, rightTo) into target at dest.
+    // Large merges split around the median of the longer run so both halves merge in parallel.
+    private static final class MergeTask extends RecursiveAction {
+        private final double[] source;
+        private final double[] target;
+        private final int leftFrom;
+        private final int leftTo;
+        private final int rightFrom;
+        private final int rightTo;
+        private final int dest;
+        private final int cutoff;
+
+        MergeTask(double[] source, double[] target, int leftFrom, int leftTo,
+                int rightFrom, int rightTo, int dest, int cutoff) {
+            this.source = source;
+            this.target = target;
+            this.leftFrom = leftFrom;
+            this.leftTo = leftTo;
+            this.rightFrom = rightFrom;
+            this.rightTo = rightTo;
+            this.dest = dest;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            int leftLength = leftTo - leftFrom;
+            int rightLength = rightTo - rightFrom;
+            if (leftLength + rightLength <= cutoff) {
+                mergeSequential();
+                return;
+            }
+            if (leftLength >= rightLength) {
+                int leftMid = (leftFrom + leftTo) >>> 1;
+                // First element of the right run that is not smaller than the pivot keeps the merge stable
+                int rightMid = DoubleSorts.lowerBound(source, rightFrom, rightTo, source[leftMid]);
+                int split = dest + (leftMid - leftFrom) + (rightMid - rightFrom);
+                target[split] = source[leftMid];
+                invokeAll(new MergeTask(source, target, leftFrom, leftMid, rightFrom, rightMid, dest, cutoff),
+                        new MergeTask(source, target, leftMid + 1, leftTo, rightMid, rightTo, split + 1, cutoff));
+            } else {
+                int rightMid = (rightFrom + rightTo) >>> 1;
+                int leftMid = DoubleSorts.upperBound(source, leftFrom, leftTo, source[rightMid]);
+                int split = dest + (leftMid - leftFrom) + (rightMid - rightFrom);
+                target[split] = source[rightMid];
+                invokeAll(new MergeTask(source, target, leftFrom, leftMid, rightFrom, rightMid, dest, cutoff),
+                        new MergeTask(source, target, leftMid, leftTo, rightMid + 1, rightTo, split + 1, cutoff));
+            }
+        }
+
+        private void mergeSequential() {
+            int i = leftFrom, j = rightFrom, k = dest;
+            while (i < leftTo && j < rightTo) {
+                if (source[i] <= source[j]) {
+                    target[k++] = source[i++];
+                } else {
+                    target[k++] = source[j++];
+                }
+            }
+            while (i < leftTo) target[k++] = source[i++];
+            while (j < rightTo) target[k++] = source[j++];
+        }
+    }
+
+    // Forks the smaller side of each partition and keeps working on the larger one,
+    // so neither the task tree nor the stack can degenerate into a linear chain
+    private static final class QuickSortTask extends RecursiveAction {
+        private final double[] values;
+        private final int low;
+        private final int high;
+        private final int cutoff;
+        private final SortJob job;
+
+        QuickSortTask(double[] values, int low, int high, int cutoff, SortJob job) {
+            this.values = values;
+            this.low = low;
+            this.high = high;
+            this.cutoff = cutoff;
+            this.job = job;
+        }
+
+        @Override
+        protected void compute() {
+            List<QuickSortTask> forked = new ArrayList<>();
+            int lo = low;
+            int hi = high;
+            while (hi - lo >= cutoff) {
+                // A sampled pivot keeps the split balanced on presorted input
+                DoubleSorts.choosePivotToHigh(values, lo, hi);
+                long bounds = DoubleSorts.partitionThreeWay(values, lo, hi);
+                int lessEnd = (int) (bounds >>> 32);
+                int greaterStart = (int) bounds;
+                if (job != null) job.advance(greaterStart - lessEnd + 1);
+                QuickSortTask smaller;
+                if (lessEnd - lo < hi - greaterStart) {
+                    smaller = new QuickSortTask(values, lo, lessEnd - 1, cutoff, job);
+                    lo = greaterStart + 1;
+                } else {
+                    smaller = new QuickSortTask(values, greaterStart + 1, hi, cutoff, job);
+                    hi = lessEnd - 1;
+                }
+                smaller.fork();
+                forked.add(smaller);
+            }
+            DoubleSorts.quickSort(values, lo, hi, job);
+            for (QuickSortTask task : forked) {
+                task.join();
+            }
+        }
+    }
+}
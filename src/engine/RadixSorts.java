@@ -0,0 +1,179 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// LSD radix sort, one byte per pass. Every type is first mapped to long keys
+// whose unsigned order is the natural order of the values, so one key sort
+// serves double[], long[] and int[]. Passes where all keys share the same byte
+// are skipped, which makes ID and timestamp columns with constant high bytes
+// take only a few passes. Large inputs count and scatter in parallel chunks.
+final class RadixSorts {
+
+    // Inputs at least this long use the parallel histogram and scatter path
+    static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    private static final int RADIX = 256;
+    private static final int PASSES = 8;
+
+    private RadixSorts() {
+    }
+
+    // Negative values before positive ones, -0.0 before 0.0 and NaN last, as in Arrays.sort
+    static void sort(double[] values) {
+        int n = values.length;
+        if (n <= 1) return;
+        boolean parallel = isParallel(n);
+        long[] keys = new long[n];
+        if (parallel) {
+            Arrays.parallelSetAll(keys, i -> toKey(values[i]));
+        } else {
+            for (int i = 0; i < n; i++) keys[i] = toKey(values[i]);
+        }
+        long[] sorted = sortKeys(keys, parallel);
+        if (parallel) {
+            Arrays.parallelSetAll(values, i -> fromKey(sorted[i]));
+        } else {
+            for (int i = 0; i < n; i++) values[i] = fromKey(sorted[i]);
+        }
+    }
+
+    static void sort(long[] values) {
+        int n = values.length;
+        if (n <= 1) return;
+        // Flipping the sign bit turns signed order into unsigned order and back
+        for (int i = 0; i < n; i++) values[i] ^= Long.MIN_VALUE;
+        long[] sorted = sortKeys(values, isParallel(n));
+        for (int i = 0; i < n; i++) values[i] = sorted[i] ^ Long.MIN_VALUE;
+    }
+
+    static void sort(int[] values) {
+        int n = values.length;
+        if (n <= 1) return;
+        // The upper four bytes are always zero, so only four passes can run
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = (values[i] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+        long[] sorted = sortKeys(keys, isParallel(n));
+        for (int i = 0; i < n; i++) values[i] = (int) sorted[i] ^ Integer.MIN_VALUE;
+    }
+
+    static long toKey(double value) {
+        // doubleToLongBits collapses every NaN into one positive NaN, which sorts last
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    static double fromKey(long key) {
+        return Double.longBitsToDouble(key ^ ((~key >> 63) | Long.MIN_VALUE));
+    }
+
+    static int digit(long key, int pass) {
+        return (int) (key >>> (pass * 8)) & (RADIX - 1);
+    }
+
+    private static boolean isParallel(int n) {
+        return n >= PARALLEL_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1;
+    }
+
+    // Sorts keys by unsigned value and returns the array holding the result,
+    // which is either keys or the scratch array the last pass wrote into
+    private static long[] sortKeys(long[] keys, boolean parallel) {
+        int n = keys.length;
+        int chunks = parallel ? Runtime.getRuntime().availableProcessors() * 4 : 1;
+        int[][] counts = parallel ? parallelCounts(keys, chunks) : counts(keys);
+        long[] source = keys;
+        long[] target = new long[n];
+        // Progress counts passes, skipped ones included
+        SortJob job = SortJob.current();
+        if (job != null) job.start(PASSES);
+        for (int pass = 0; pass < PASSES; pass++) {
+            if (job != null) job.advance(1);
+            if (counts[pass][digit(source[0], pass)] == n) continue;
+            if (parallel) {
+                parallelScatter(source, target, pass, chunks);
+            } else {
+                scatter(source, target, pass, counts[pass]);
+            }
+            long[] temp = source;
+            source = target;
+            target = temp;
+        }
+        return source;
+    }
+
+    // Histograms of every pass, gathered in one read of the keys
+    private static int[][] counts(long[] keys) {
+        int[][] counts = new int[PASSES][RADIX];
+        for (long key : keys) {
+            for (int pass = 0; pass < PASSES; pass++) {
+                counts[pass][digit(key, pass)]++;
+            }
+        }
+        return counts;
+    }
+
+    private static int[][] parallelCounts(long[] keys, int chunks) {
+        int[][][] chunkCounts = new int[chunks][][];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[][] counts = new int[PASSES][RADIX];
+            for (int i = chunkStart(keys.length, chunks, c), end = chunkStart(keys.length, chunks, c + 1); i < end; i++) {
+                long key = keys[i];
+                for (int pass = 0; pass < PASSES; pass++) {
+                    counts[pass][digit(key, pass)]++;
+                }
+            }
+            chunkCounts[c] = counts;
+        });
+        int[][] counts = new int[PASSES][RADIX];
+        for (int[][] chunk : chunkCounts) {
+            for (int pass = 0; pass < PASSES; pass++) {
+                for (int d = 0; d < RADIX; d++) {
+                    counts[pass][d] += chunk[pass][d];
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static void scatter(long[] source, long[] target, int pass, int[] counts) {
+        int[] offsets = new int[RADIX];
+        for (int d = 1; d < RADIX; d++) {
+            offsets[d] = offsets[d - 1] + counts[d - 1];
+        }
+        for (long key : source) {
+            target[offsets[digit(key, pass)]++] = key;
+        }
+    }
+
+    // Each chunk counts its own digits, then writes to offsets that place it
+    // after the same digits of all earlier chunks, which keeps the pass stable
+    private static void parallelScatter(long[] source, long[] target, int pass, int chunks) {
+        int n = source.length;
+        int[][] offsets = new int[chunks][RADIX];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] counts = offsets[c];
+            for (int i = chunkStart(n, chunks, c), end = chunkStart(n, chunks, c + 1); i < end; i++) {
+                counts[digit(source[i], pass)]++;
+            }
+        });
+        int position = 0;
+        for (int d = 0; d < RADIX; d++) {
+            for (int c = 0; c < chunks; c++) {
+                int count = offsets[c][d];
+                offsets[c][d] = position;
+                position += count;
+            }
+        }
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] next = offsets[c];
+            for (int i = chunkStart(n, chunks, c), end = chunkStart(n, chunks, c + 1); i < end; i++) {
+                long key = source[i];
+                target[next[digit(key, pass)]++] = key;
+            }
+        });
+    }
+
+    private static int chunkStart(int n, int chunks, int chunk) {
+        return (int) ((long) n * chunk / chunks);
+    }
+}
@@ -0,0 +1,165 @@
+package engine;
+
+import java.util.Arrays;
+
+// Order statistics without a full sort. Top-K and bottom-K keep a bounded heap
+// of k values (O(n log k)); k-th smallest and percentiles partition a copy of
+// the data around sampled pivots and switch to median-of-medians pivots when
+// the range stops shrinking, which keeps the worst case linear.
+public final class Selection {
+
+    private Selection() {
+    }
+
+    // The k largest values, largest first
+    public static double[] topK(double[] values, int k) {
+        k = checkK(values, k);
+        double[] heap = Arrays.copyOf(values, k);
+        if (k == 0) return heap;
+        // Min-heap: its root is the smallest value still in the top k
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            DoubleSorts.heapifyMin(heap, k, i);
+        }
+        for (int i = k; i < values.length; i++) {
+            if (values[i] > heap[0]) {
+                heap[0] = values[i];
+                DoubleSorts.heapifyMin(heap, k, 0);
+            }
+        }
+        // The range overload leaves the caller's job and its progress alone
+        DoubleSorts.heapSort(heap, 0, k);
+        reverse(heap);
+        return heap;
+    }
+
+    // The k smallest values, smallest first
+    public static double[] bottomK(double[] values, int k) {
+        k = checkK(values, k);
+        double[] heap = Arrays.copyOf(values, k);
+        if (k == 0) return heap;
+        // Max-heap, exactly as heap sort builds it: the root is the largest kept value
+        for (int i = k / 2 - 1; i >= 0; i--) {
+            DoubleSorts.heapify(heap, k, i);
+        }
+        for (int i = k; i < values.length; i++) {
+            if (values[i] < heap[0]) {
+                heap[0] = values[i];
+                DoubleSorts.heapify(heap, k, 0);
+            }
+        }
+        DoubleSorts.heapSort(heap, 0, k);
+        return heap;
+    }
+
+    // The value at index k (0-based) of the sorted order. values is left untouched.
+    public static double kthSmallest(double[] values, int k) {
+        if (k < 0 || k >= values.length) {
+            throw new IllegalArgumentException("k out of range: " + k + " of " + values.length);
+        }
+        double[] work = values.clone();
+        select(work, new int[] {k}, 0, 1, 0, work.length - 1, depthLimit(work.length));
+        return work[k];
+    }
+
+    // Nearest-rank percentiles (as BenchmarkResult.percentileMillis), found in
+    // one recursive partitioning pass for all of them. values is left untouched.
+    public static double[] percentiles(double[] values, double... percentiles) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("No values to select from");
+        }
+        int[] ranks = new int[percentiles.length];
+        for (int p = 0; p < percentiles.length; p++) {
+            if (!(percentiles[p] >= 0 && percentiles[p] <= 100)) {
+                throw new IllegalArgumentException("Percentile out of range: " + percentiles[p]);
+            }
+            ranks[p] = rank(percentiles[p], values.length);
+        }
+        int[] sortedRanks = ranks.clone();
+        Arrays.sort(sortedRanks);
+        double[] work = values.clone();
+        select(work, sortedRanks, 0, sortedRanks.length, 0, work.length - 1, depthLimit(work.length));
+
+        double[] result = new double[ranks.length];
+        for (int p = 0; p < ranks.length; p++) {
+            result[p] = work[ranks[p]];
+        }
+        return result;
+    }
+
+    static int rank(double percentile, int n) {
+        int rank = (int) Math.ceil(percentile / 100.0 * n);
+        return Math.max(0, Math.min(n - 1, rank - 1));
+    }
+
+    // Places the values of ranks[from, to) (sorted ascending, all inside [low, high])
+    // at their sorted positions. Each round partitions three ways and keeps only
+    // the sides that still contain a wanted rank.
+    private static void select(double[] values, int[] ranks, int from, int to, int low, int high, int depthLimit) {
+        while (from < to && high - low >= DoubleSorts.INSERTION_THRESHOLD) {
+            if (depthLimit-- <= 0) {
+                medianOfMediansToHigh(values, low, high);
+            } else {
+                DoubleSorts.choosePivotToHigh(values, low, high);
+            }
+            long bounds = DoubleSorts.partitionThreeWay(values, low, high);
+            int lessEnd = (int) (bounds >>> 32);
+            int equalEnd = (int) bounds;
+
+            int below = from;
+            while (below < to && ranks[below] < lessEnd) below++;
+            int above = below;
+            while (above < to && ranks[above] <= equalEnd) above++;
+
+            // Recurse into the side with fewer ranks, continue with the other
+            if (below - from < to - above) {
+                select(values, ranks, from, below, low, lessEnd - 1, depthLimit);
+                from = above;
+                low = equalEnd + 1;
+            } else {
+                select(values, ranks, above, to, equalEnd + 1, high, depthLimit);
+                to = below;
+                high = lessEnd - 1;
+            }
+        }
+        if (from < to) {
+            DoubleSorts.insertionSort(values, low, high + 1);
+        }
+    }
+
+    // Median of the medians of groups of five, moved to values[high]. Guarantees
+    // that at least 30% of the range lies on each side of the pivot.
+    private static void medianOfMediansToHigh(double[] values, int low, int high) {
+        int medians = low;
+        for (int group = low; group <= high; group += 5) {
+            int end = Math.min(group + 5, high + 1);
+            DoubleSorts.insertionSort(values, group, end);
+            swap(values, medians++, (group + end - 1) >>> 1);
+        }
+        int middle = (low + medians - 1) >>> 1;
+        select(values, new int[] {middle}, 0, 1, low, medians - 1, depthLimit(medians - low));
+        swap(values, middle, high);
+    }
+
+    private static int depthLimit(int n) {
+        return DoubleSorts.introDepthLimit(n);
+    }
+
+    private static int checkK(double[] values, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        return Math.min(k, values.length);
+    }
+
+    private static void reverse(double[] values) {
+        for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+            swap(values, i, j);
+        }
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double temp = values[i];
+        values[i] = values[j];
+        values[j] = temp;
+    }
+}
@@ -0,0 +1,243 @@
+package engine;
+
+// Headless entry point for the sorting algorithms. Everything here works on
+// primitive arrays in place, so timings measure the algorithm rather than
+// boxing and list access.
+public final class SortEngine {
+
+    public static final String INSERTION_SORT = "Insertion Sort";
+    public static final String BINARY_INSERTION_SORT = "Binary Insertion Sort";
+    public static final String PAIR_INSERTION_SORT = "Pair Insertion Sort";
+    public static final String SHELL_SORT = "Shell Sort";
+    public static final String MERGE_SORT = "Merge Sort";
+    public static final String NATURAL_MERGE_SORT = "Natural Merge Sort";
+    public static final String QUICK_SORT = "Quick Sort";
+    public static final String INTRO_SORT = "Intro Sort";
+    public static final String HEAP_SORT = "Heap Sort";
+    public static final String RADIX_SORT = "Radix Sort";
+    public static final String PARALLEL_MERGE_SORT = "Parallel Merge Sort";
+    public static final String PARALLEL_QUICK_SORT = "Parallel Quick Sort";
+
+    // Names shown in the algorithm selectors, in display order
+    public static final String[] ALGORITHMS = {
+        INSERTION_SORT, BINARY_INSERTION_SORT, PAIR_INSERTION_SORT, SHELL_SORT, MERGE_SORT, NATURAL_MERGE_SORT, QUICK_SORT, INTRO_SORT,
+        HEAP_SORT, RADIX_SORT, PARALLEL_MERGE_SORT, PARALLEL_QUICK_SORT
+    };
+
+    // Ranges at or below this size are sorted sequentially by the parallel algorithms
+    private static volatile int parallelCutoff = Integer.getInteger("sorting.parallel.cutoff", 8192);
+    // Gaps used by Shell Sort; Shell's halving gaps unless chosen otherwise, so
+    // earlier results stay comparable
+    private static volatile GapSequence shellGaps =
+            GapSequence.fromName(System.getProperty("sorting.shell.gaps", GapSequence.SHELL.toString()));
+    // Merge, quick, intro and Shell Sort hand ranges up to this length to smallSort
+    private static volatile int smallSortCutoff = Integer.getInteger("sorting.small.cutoff", 32);
+    private static volatile InsertionVariant smallSort =
+            InsertionVariant.fromName(System.getProperty("sorting.small.sort", InsertionVariant.LINEAR.toString()));
+    // Heap layout and sift-down used by Heap Sort; the original recursive
+    // heapify unless chosen otherwise
+    private static volatile HeapVariant heapVariant =
+            HeapVariant.fromName(System.getProperty("sorting.heap.variant", HeapVariant.RECURSIVE.toString()));
+
+    private SortEngine() {
+    }
+
+    public static int getParallelCutoff() {
+        return parallelCutoff;
+    }
+
+    public static void setParallelCutoff(int cutoff) {
+        if (cutoff < 1) {
+            throw new IllegalArgumentException("Parallel cutoff must be positive: " + cutoff);
+        }
+        parallelCutoff = cutoff;
+    }
+
+    public static GapSequence getShellGaps() {
+        return shellGaps;
+    }
+
+    public static void setShellGaps(GapSequence gaps) {
+        if (gaps == null) {
+            throw new IllegalArgumentException("Gap sequence must not be null");
+        }
+        shellGaps = gaps;
+    }
+
+    public static int getSmallSortCutoff() {
+        return smallSortCutoff;
+    }
+
+    public static void setSmallSortCutoff(int cutoff) {
+        if (cutoff < 1) {
+            throw new IllegalArgumentException("Small-range cutoff must be positive: " + cutoff);
+        }
+        smallSortCutoff = cutoff;
+    }
+
+    public static InsertionVariant getSmallSort() {
+        return smallSort;
+    }
+
+    public static void setSmallSort(InsertionVariant variant) {
+        if (variant == null) {
+            throw new IllegalArgumentException("Insertion sort must not be null");
+        }
+        smallSort = variant;
+    }
+
+    public static HeapVariant getHeapVariant() {
+        return heapVariant;
+    }
+
+    public static void setHeapVariant(HeapVariant variant) {
+        if (variant == null) {
+            throw new IllegalArgumentException("Heap variant must not be null");
+        }
+        heapVariant = variant;
+    }
+
+    // Whether the algorithm hands short ranges to the small-range insertion sort
+    public static boolean usesSmallSort(String algorithm) {
+        return switch (algorithm) {
+            case SHELL_SORT, MERGE_SORT, NATURAL_MERGE_SORT, QUICK_SORT, INTRO_SORT,
+                    PARALLEL_MERGE_SORT, PARALLEL_QUICK_SORT -> true;
+            default -> false;
+        };
+    }
+
+    // Whether the algorithm takes quadratic time on typical input
+    public static boolean isQuadratic(String algorithm) {
+        return switch (algorithm) {
+            case INSERTION_SORT, BINARY_INSERTION_SORT, PAIR_INSERTION_SORT -> true;
+            default -> false;
+        };
+    }
+
+    // Extra arrays the size of the input the algorithm allocates on a double[]:
+    // the merge buffer, or radix sort's keys and the target of its passes
+    public static int scratchArrays(String algorithm) {
+        return switch (algorithm) {
+            case MERGE_SORT, NATURAL_MERGE_SORT, PARALLEL_MERGE_SORT -> 1;
+            case RADIX_SORT -> 2;
+            default -> 0;
+        };
+    }
+
+    // Sequential algorithm a parallel one should be compared against, or null
+    public static String sequentialCounterpart(String algorithm) {
+        return switch (algorithm) {
+            case PARALLEL_MERGE_SORT -> MERGE_SORT;
+            case PARALLEL_QUICK_SORT -> QUICK_SORT;
+            default -> null;
+        };
+    }
+
+    // Algorithm the result panes time alongside this one: parallel modes against
+    // their sequential version, radix sort against the fastest comparison sort
+    public static String baseline(String algorithm) {
+        return RADIX_SORT.equals(algorithm) ? QUICK_SORT : sequentialCounterpart(algorithm);
+    }
+
+    // Whether the algorithm may run work on the common fork-join pool
+    public static boolean usesCommonPool(String algorithm) {
+        return sequentialCounterpart(algorithm) != null || RADIX_SORT.equals(algorithm);
+    }
+
+    public static void sort(String algorithm, double[] values) {
+        switch (algorithm) {
+            case INSERTION_SORT -> DoubleSorts.insertionSort(values);
+            case BINARY_INSERTION_SORT -> DoubleSorts.binaryInsertionSort(values);
+            case PAIR_INSERTION_SORT -> DoubleSorts.pairInsertionSort(values);
+            case SHELL_SORT -> DoubleSorts.shellSort(values, shellGaps.gaps(values.length));
+            case MERGE_SORT -> DoubleSorts.mergeSort(values);
+            case NATURAL_MERGE_SORT -> DoubleSorts.naturalMergeSort(values);
+            case QUICK_SORT -> DoubleSorts.quickSort(values);
+            case INTRO_SORT -> DoubleSorts.introSort(values);
+            case HEAP_SORT -> DoubleSorts.heapSort(values);
+            case RADIX_SORT -> RadixSorts.sort(values);
+            case PARALLEL_MERGE_SORT -> ParallelSorts.mergeSort(values, parallelCutoff);
+            case PARALLEL_QUICK_SORT -> ParallelSorts.quickSort(values, parallelCutoff);
+            default -> throw unknown(algorithm);
+        }
+    }
+
+    public static void sort(String algorithm, long[] values) {
+        switch (algorithm) {
+            case INSERTION_SORT -> LongSorts.insertionSort(values);
+            case BINARY_INSERTION_SORT -> LongSorts.binaryInsertionSort(values);
+            case PAIR_INSERTION_SORT -> LongSorts.pairInsertionSort(values);
+            case SHELL_SORT -> LongSorts.shellSort(values, shellGaps.gaps(values.length));
+            case MERGE_SORT -> LongSorts.mergeSort(values);
+            case NATURAL_MERGE_SORT -> LongSorts.naturalMergeSort(values);
+            case QUICK_SORT -> LongSorts.quickSort(values);
+            case INTRO_SORT -> LongSorts.introSort(values);
+            case HEAP_SORT -> LongSorts.heapSort(values);
+            case RADIX_SORT -> RadixSorts.sort(values);
+            default -> throw unsupported(algorithm, "long[]");
+        }
+    }
+
+    public static void sort(String algorithm, int[] values) {
+        switch (algorithm) {
+            case INSERTION_SORT -> IntSorts.insertionSort(values);
+            case BINARY_INSERTION_SORT -> IntSorts.binaryInsertionSort(values);
+            case PAIR_INSERTION_SORT -> IntSorts.pairInsertionSort(values);
+            case SHELL_SORT -> IntSorts.shellSort(values, shellGaps.gaps(values.length));
+            case MERGE_SORT -> IntSorts.mergeSort(values);
+            case NATURAL_MERGE_SORT -> IntSorts.naturalMergeSort(values);
+            case QUICK_SORT -> IntSorts.quickSort(values);
+            case INTRO_SORT -> IntSorts.introSort(values);
+            case HEAP_SORT -> IntSorts.heapSort(values);
+            case RADIX_SORT -> RadixSorts.sort(values);
+            default -> throw unsupported(algorithm, "int[]");
+        }
+    }
+
+    // Sorts while reporting every element operation to the tracer. Parallel modes
+    // are traced through their sequential counterpart, since one ordered event
+    // stream cannot describe concurrent work.
+    public static void trace(String algorithm, double[] values, SortTracer tracer) {
+        String sequential = sequentialCounterpart(algorithm);
+        switch (sequential != null ? sequential : algorithm) {
+            case INSERTION_SORT -> TracedSorts.insertionSort(values, tracer);
+            case BINARY_INSERTION_SORT -> TracedSorts.binaryInsertionSort(values, 0, values.length, tracer);
+            case PAIR_INSERTION_SORT -> TracedSorts.pairInsertionSort(values, 0, values.length, tracer);
+            case SHELL_SORT -> TracedSorts.shellSort(values, shellGaps.gaps(values.length), tracer);
+            case MERGE_SORT -> TracedSorts.mergeSort(values, tracer);
+            case NATURAL_MERGE_SORT -> TracedSorts.naturalMergeSort(values, tracer);
+            case QUICK_SORT -> TracedSorts.quickSort(values, tracer);
+            case INTRO_SORT -> TracedSorts.introSort(values, tracer);
+            case HEAP_SORT -> TracedSorts.heapSort(values, tracer);
+            case RADIX_SORT -> TracedSorts.radixSort(values, tracer);
+            default -> throw unknown(algorithm);
+        }
+    }
+
+    // Whether values ascend with every NaN at the end. -0.0 and 0.0 count as
+    // equal, so comparison sorts that keep them in input order still pass.
+    public static boolean isSorted(double[] values) {
+        int end = values.length;
+        while (end > 0 && Double.isNaN(values[end - 1])) end--;
+        for (int i = 1; i < end; i++) {
+            // Also false for a NaN before the tail
+            if (!(values[i - 1] <= values[i])) return false;
+        }
+        return true;
+    }
+
+    // Sorts and returns the elapsed wall time in nanoseconds
+    public static long timeSort(String algorithm, double[] values) {
+        long startTime = System.nanoTime();
+        sort(algorithm, values);
+        return System.nanoTime() - startTime;
+    }
+
+    private static IllegalArgumentException unknown(String algorithm) {
+        return new IllegalArgumentException("Unknown algorithm: " + algorithm);
+    }
+
+    private static IllegalArgumentException unsupported(String algorithm, String type) {
+        return new IllegalArgumentException(algorithm + " is not available for " + type);
+    }
+}
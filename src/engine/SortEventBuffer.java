@@ -0,0 +1,106 @@
+package engine;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Bounded single-producer/single-consumer ring buffer of sort operations.
+// The sorting thread publishes through the SortTracer methods and waits when
+// the buffer is full, so a slow consumer paces the producer instead of memory
+// growing. Each event is packed into one long (2-bit op, two 31-bit indices);
+// the value of a write travels in a parallel double slot.
+public final class SortEventBuffer implements SortTracer {
+
+    private static final int COMPARE = 0;
+    private static final int SWAP = 1;
+    private static final int WRITE = 2;
+    private static final long INDEX_MASK = 0x7FFF_FFFFL;
+
+    private final long[] events;
+    private final double[] operands;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // next slot to read, written by the consumer
+    private final AtomicLong tail = new AtomicLong(); // next slot to write, written by the producer
+    private long cachedHead; // producer's last view of head
+    private volatile boolean finished;
+    private volatile boolean closed;
+
+    public SortEventBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        events = new long[size];
+        operands = new double[size];
+        mask = size - 1;
+    }
+
+    @Override
+    public void compare(int i, int j) {
+        publish(pack(COMPARE, i, j), 0);
+    }
+
+    @Override
+    public void swap(int i, int j) {
+        publish(pack(SWAP, i, j), 0);
+    }
+
+    @Override
+    public void write(int index, double value) {
+        publish(pack(WRITE, index, 0), value);
+    }
+
+    // Called by the producer once the traced run is complete
+    public void finish() {
+        finished = true;
+    }
+
+    // Called by the consumer to abandon the run; a blocked producer then
+    // fails with CancellationException
+    public void close() {
+        closed = true;
+    }
+
+    // True once the producer has finished and every event was consumed
+    public boolean isDrained() {
+        return finished && head.get() == tail.get();
+    }
+
+    // Replays up to max pending events into target and returns how many were consumed
+    public int drain(SortTracer target, int max) {
+        long start = head.get();
+        long available = tail.get() - start;
+        int count = (int) Math.min(available, max);
+        for (int n = 0; n < count; n++) {
+            int slot = (int) (start + n) & mask;
+            long event = events[slot];
+            int i = (int) ((event >>> 31) & INDEX_MASK);
+            int j = (int) (event & INDEX_MASK);
+            switch ((int) (event >>> 62)) {
+                case COMPARE -> target.compare(i, j);
+                case SWAP -> target.swap(i, j);
+                default -> target.write(i, operands[slot]);
+            }
+        }
+        head.lazySet(start + count);
+        return count;
+    }
+
+    private void publish(long event, double operand) {
+        long t = tail.get();
+        while (t - cachedHead > mask) {
+            cachedHead = head.get();
+            if (t - cachedHead > mask) {
+                if (closed) {
+                    throw new CancellationException("Event consumer closed the buffer");
+                }
+                LockSupport.parkNanos(100_000);
+            }
+        }
+        int slot = (int) t & mask;
+        events[slot] = event;
+        operands[slot] = operand;
+        tail.lazySet(t + 1);
+    }
+
+    private static long pack(int op, int i, int j) {
+        return ((long) op << 62) | ((long) i << 31) | j;
+    }
+}
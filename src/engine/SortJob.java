@@ -0,0 +1,110 @@
+package engine;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cancellation flag and progress of one sort request. While work runs through
+// run(), the sorts it starts on that thread pick the job up, check it between
+// coarse steps (batches of insertions or heap extractions, merge passes,
+// partitions of large ranges, radix passes) and throw CancellationException
+// once it is cancelled. Progress counts the same steps against an estimate of
+// the total, so it is a fraction of the work rather than of the elapsed time.
+public final class SortJob {
+
+    // Hot loops only look at the job once per this many steps
+    static final int CHECK_INTERVAL = 1 << 12;
+
+    private static final ThreadLocal<SortJob> CURRENT = new ThreadLocal<>();
+
+    // Job whose cancellation this one follows, or null
+    private final SortJob parent;
+    private final AtomicLong done = new AtomicLong();
+    private volatile long total;
+    private volatile String phase = "Waiting";
+    private volatile boolean cancelled;
+
+    public SortJob() {
+        this(null);
+    }
+
+    private SortJob(SortJob parent) {
+        this.parent = parent;
+    }
+
+    // Runs work on the calling thread with this job attached to it
+    public void run(Runnable work) {
+        SortJob previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            checkpoint();
+            work.run();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    // Asks the running sort to stop at its next check; safe from any thread
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || parent != null && parent.isCancelled();
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    // Names the next step and clears the progress until a sort starts counting
+    public void setPhase(String phase) {
+        this.phase = phase;
+        total = 0;
+        done.set(0);
+    }
+
+    // Fraction of the current phase done, or -1 while no estimate is available
+    public double getProgress() {
+        long expected = total;
+        return expected <= 0 ? -1 : Math.min(1.0, (double) done.get() / expected);
+    }
+
+    // For work outside the sorts, such as the file passes in the data package:
+    // throws CancellationException once the calling thread's job is cancelled
+    public static void checkCancelled() {
+        SortJob job = CURRENT.get();
+        if (job != null) {
+            job.checkpoint();
+        }
+    }
+
+    // Job for work running beside others under this one: it is cancelled with
+    // this job but counts its own progress, so the parent can count finished parts
+    SortJob child() {
+        return new SortJob(this);
+    }
+
+    // Job attached to the calling thread, or null
+    static SortJob current() {
+        return CURRENT.get();
+    }
+
+    // A sort is starting with about this many steps of work
+    void start(long steps) {
+        checkpoint();
+        done.set(0);
+        total = steps;
+    }
+
+    // Steps finished since the last call; may be called from several threads
+    void advance(long steps) {
+        checkpoint();
+        done.addAndGet(steps);
+    }
+
+    void checkpoint() {
+        if (isCancelled()) {
+            throw new CancellationException("Sort cancelled");
+        }
+    }
+}
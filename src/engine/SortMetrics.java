@@ -0,0 +1,178 @@
+package engine;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Locale;
+
+// Measurements of one sort: wall time, bytes allocated and GC activity come
+// from the uninstrumented timed run; operation counts and recursion depth come
+// from a second, traced run on an identical copy. The timed run therefore
+// carries no counting overhead, and the traced run can be skipped altogether.
+public final class SortMetrics {
+
+    public static final String CSV_HEADER =
+            "algorithm,values,time_ms,comparisons,swaps,writes,max_depth,allocated_bytes,gc_count,gc_ms";
+
+    private final String algorithm;
+    private final int size;
+    private final long timeNanos;
+    private final long comparisons;
+    private final long swaps;
+    private final long writes;
+    private final int maxDepth;
+    private final long allocatedBytes;
+    private final long gcCount;
+    private final long gcMillis;
+
+    // counts is null when the traced run was skipped
+    private SortMetrics(String algorithm, int size, long timeNanos, CountingTracer counts,
+            long allocatedBytes, long gcCount, long gcMillis) {
+        this.algorithm = algorithm;
+        this.size = size;
+        this.timeNanos = timeNanos;
+        this.comparisons = counts != null ? counts.getComparisons() : -1;
+        this.swaps = counts != null ? counts.getSwaps() : -1;
+        this.writes = counts != null ? counts.getWrites() : -1;
+        this.maxDepth = counts != null ? counts.getMaxDepth() : -1;
+        this.allocatedBytes = allocatedBytes;
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+    }
+
+    // Sorts values in place with the plain algorithm, then counts operations on
+    // a copy of the original input
+    public static SortMetrics measure(String algorithm, double[] values) {
+        return measure(algorithm, values, true);
+    }
+
+    // Without countOperations only the timed run happens and no copy is kept
+    public static SortMetrics measure(String algorithm, double[] values, boolean countOperations) {
+        double[] original = countOperations ? values.clone() : null;
+        // Parallel work allocates on pool threads, so count every thread for those
+        boolean allThreads = SortEngine.usesCommonPool(algorithm);
+        SortJob job = SortJob.current();
+        if (job != null) job.setPhase("Sorting");
+
+        long allocatedBefore = allocatedBytes(allThreads);
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        long timeNanos = SortEngine.timeSort(algorithm, values);
+        long gcMillisAfter = gcMillis();
+        long gcCountAfter = gcCount();
+        long allocatedAfter = allocatedBytes(allThreads);
+
+        CountingTracer counts = null;
+        if (countOperations) {
+            if (job != null) job.setPhase("Counting operations");
+            counts = new CountingTracer();
+            SortEngine.trace(algorithm, original, counts);
+        }
+
+        return new SortMetrics(algorithm, values.length, timeNanos, counts,
+                allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore,
+                gcCountAfter - gcCountBefore, gcMillisAfter - gcMillisBefore);
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public double getTimeMillis() {
+        return timeNanos / 1_000_000.0;
+    }
+
+    // False when the traced run was skipped; the four counts below are then -1
+    public boolean hasOperationCounts() {
+        return comparisons >= 0;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getSwaps() {
+        return swaps;
+    }
+
+    public long getWrites() {
+        return writes;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    // -1 when the JVM cannot report thread allocation
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcMillis() {
+        return gcMillis;
+    }
+
+    // Lines for the result panes, one metric per line
+    public String toSummary() {
+        String counts = hasOperationCounts()
+                ? String.format("Comparisons: %,d%nSwaps: %,d%nWrites: %,d%nMax recursion depth: %d%n",
+                        comparisons, swaps, writes, maxDepth)
+                : String.format("Operation counts: not collected%n");
+        return counts + String.format("Allocated: %s%nGC: %d collections, %d ms%n",
+                allocatedBytes < 0 ? "n/a" : String.format("%,d bytes", allocatedBytes),
+                gcCount, gcMillis);
+    }
+
+    // Counts that were not collected are written as -1, like allocated_bytes
+    public String toCsvRow() {
+        return String.format(Locale.ROOT, "%s,%d,%.3f,%d,%d,%d,%d,%d,%d,%d",
+                algorithm, size, getTimeMillis(), comparisons, swaps, writes, maxDepth,
+                allocatedBytes, gcCount, gcMillis);
+    }
+
+    private static long allocatedBytes(boolean allThreads) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean counting)
+                || !counting.isThreadAllocatedMemorySupported()
+                || !counting.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        if (!allThreads) {
+            return counting.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        long total = 0;
+        for (long bytes : counting.getThreadAllocatedBytes(counting.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : collectors()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : collectors()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static List<GarbageCollectorMXBean> collectors() {
+        return ManagementFactory.getGarbageCollectorMXBeans();
+    }
+}
@@ -0,0 +1,19 @@
+package engine;
+
+// Receives the element operations of a traced sort run, in program order.
+// Indices refer to the array being sorted.
+public interface SortTracer {
+
+    void compare(int i, int j);
+
+    void swap(int i, int j);
+
+    void write(int index, double value);
+
+    // Brackets each recursive call, for tracers that track recursion depth
+    default void enter() {
+    }
+
+    default void exit() {
+    }
+}
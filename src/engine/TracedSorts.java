@@ -0,0 +1,499 @@
+package engine;
+
+// The DoubleSorts algorithms with every compare, swap and write reported to a
+// SortTracer. Kept separate so the timed code paths carry no tracing calls.
+final class TracedSorts {
+
+    private TracedSorts() {
+    }
+
+    static void insertionSort(double[] values, SortTracer tracer) {
+        insertionSort(values, 0, values.length, tracer);
+    }
+
+    private static void insertionSort(double[] values, int from, int to, SortTracer tracer) {
+        for (int i = from + 1; i < to; i++) {
+            double key = values[i];
+            int j = i - 1;
+            while (j >= from && greater(values, j, key, i, tracer)) {
+                values[j + 1] = values[j];
+                tracer.write(j + 1, values[j]);
+                j--;
+            }
+            values[j + 1] = key;
+            tracer.write(j + 1, key);
+        }
+    }
+
+    // Each element moved by the block shift is reported as a write
+    static void binaryInsertionSort(double[] values, int from, int to, SortTracer tracer) {
+        for (int i = from + 1; i < to; i++) {
+            double key = values[i];
+            if (!greater(values, i - 1, key, i, tracer)) continue;
+            int low = from;
+            int high = i - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (greater(values, mid, key, i, tracer)) high = mid;
+                else low = mid + 1;
+            }
+            for (int j = i; j > low; j--) {
+                values[j] = values[j - 1];
+                tracer.write(j, values[j]);
+            }
+            values[low] = key;
+            tracer.write(low, key);
+        }
+    }
+
+    // Both elements of a pair are reported against the position of the larger one
+    static void pairInsertionSort(double[] values, int from, int to, SortTracer tracer) {
+        int i = from + 1;
+        for (; i < to - 1; i += 2) {
+            double larger = values[i];
+            double smaller = values[i + 1];
+            if (!greater(values, i, smaller, i + 1, tracer)) {
+                larger = smaller;
+                smaller = values[i];
+            }
+            int j = i - 1;
+            while (j >= from && greater(values, j, larger, i, tracer)) {
+                values[j + 2] = values[j];
+                tracer.write(j + 2, values[j]);
+                j--;
+            }
+            values[j + 2] = larger;
+            tracer.write(j + 2, larger);
+            while (j >= from && greater(values, j, smaller, i, tracer)) {
+                values[j + 1] = values[j];
+                tracer.write(j + 1, values[j]);
+                j--;
+            }
+            values[j + 1] = smaller;
+            tracer.write(j + 1, smaller);
+        }
+        if (i == to - 1) {
+            double key = values[i];
+            int j = i - 1;
+            while (j >= from && greater(values, j, key, i, tracer)) {
+                values[j + 1] = values[j];
+                tracer.write(j + 1, values[j]);
+                j--;
+            }
+            values[j + 1] = key;
+            tracer.write(j + 1, key);
+        }
+    }
+
+    private static void smallSort(double[] values, int from, int to, SortTracer tracer) {
+        switch (SortEngine.getSmallSort()) {
+            case BINARY -> binaryInsertionSort(values, from, to, tracer);
+            case PAIR -> pairInsertionSort(values, from, to, tracer);
+            default -> insertionSort(values, from, to, tracer);
+        }
+    }
+
+    static void shellSort(double[] values, int[] gaps, SortTracer tracer) {
+        int n = values.length;
+        if (n <= SortEngine.getSmallSortCutoff()) {
+            smallSort(values, 0, n, tracer);
+            return;
+        }
+        for (int gap : gaps) {
+            for (int i = gap; i < n; i++) {
+                double temp = values[i];
+                int j = i;
+                while (j >= gap && greater(values, j - gap, temp, j, tracer)) {
+                    values[j] = values[j - gap];
+                    tracer.write(j, values[j]);
+                    j -= gap;
+                }
+                values[j] = temp;
+                tracer.write(j, temp);
+            }
+        }
+    }
+
+    static void mergeSort(double[] values, SortTracer tracer) {
+        int n = values.length;
+        if (n <= 1) return;
+        double[] scratch = new double[n];
+        int block = SortEngine.getSmallSortCutoff();
+        for (int lo = 0; lo < n; lo += block) {
+            smallSort(values, lo, Math.min(n, lo + block), tracer);
+        }
+        for (int width = block; width < n; width = width <= n / 2 ? 2 * width : n) {
+            for (int lo = 0; lo < n - width; ) {
+                int mid = lo + width;
+                int hi = mid + Math.min(width, n - mid);
+                merge(values, scratch, lo, mid, hi, tracer);
+                lo = hi;
+            }
+        }
+    }
+
+    static void naturalMergeSort(double[] values, SortTracer tracer) {
+        int n = values.length;
+        if (n <= 1) return;
+        double[] scratch = new double[n];
+        int[] runBase = new int[64];
+        int[] runLength = new int[64];
+        int minRun = SortEngine.getSmallSortCutoff();
+        int runs = 0;
+        for (int lo = 0; lo < n; ) {
+            int end = runEnd(values, lo, n, tracer);
+            if (end - lo < minRun) {
+                end = Math.min(n, lo + minRun);
+                smallSort(values, lo, end, tracer);
+            }
+            runBase[runs] = lo;
+            runLength[runs] = end - lo;
+            runs = mergeRuns(values, scratch, runBase, runLength, runs + 1, false, tracer);
+            lo = end;
+        }
+        mergeRuns(values, scratch, runBase, runLength, runs, true, tracer);
+    }
+
+    private static int runEnd(double[] values, int lo, int n, SortTracer tracer) {
+        int end = lo + 1;
+        if (end == n) return end;
+        if (less(values, end++, lo, tracer)) {
+            while (end < n && less(values, end, end - 1, tracer)) end++;
+            for (int i = lo, j = end - 1; i < j; i++, j--) {
+                swap(values, i, j, tracer);
+            }
+        } else {
+            while (end < n && !less(values, end, end - 1, tracer)) end++;
+        }
+        return end;
+    }
+
+    private static int mergeRuns(double[] values, double[] scratch, int[] runBase, int[] runLength,
+            int runs, boolean all, SortTracer tracer) {
+        while (runs > 1) {
+            int n = runs - 2;
+            if (all) {
+                if (n > 0 && runLength[n - 1] < runLength[n + 1]) n--;
+            } else if (n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1]
+                    || n > 1 && runLength[n - 2] <= runLength[n - 1] + runLength[n]) {
+                if (runLength[n - 1] < runLength[n + 1]) n--;
+            } else if (runLength[n] > runLength[n + 1]) {
+                break;
+            }
+            merge(values, scratch, runBase[n], runBase[n + 1], runBase[n + 1] + runLength[n + 1], tracer);
+            runLength[n] += runLength[n + 1];
+            if (n == runs - 3) {
+                runBase[n + 1] = runBase[n + 2];
+                runLength[n + 1] = runLength[n + 2];
+            }
+            runs--;
+        }
+        return runs;
+    }
+
+    private static void merge(double[] values, double[] scratch, int lo, int mid, int hi, SortTracer tracer) {
+        if (!less(values, mid, mid - 1, tracer)) return;
+        lo = bound(values, lo, mid, mid, false, tracer);
+        hi = bound(values, mid, hi, mid - 1, true, tracer);
+        System.arraycopy(values, lo, scratch, lo, mid - lo);
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            // Left values are reported against the positions they were copied from
+            tracer.compare(i, j);
+            if (scratch[i] <= values[j]) {
+                values[k] = scratch[i++];
+            } else {
+                values[k] = values[j++];
+            }
+            tracer.write(k, values[k]);
+            k++;
+        }
+        while (i < mid) {
+            values[k] = scratch[i++];
+            tracer.write(k, values[k]);
+            k++;
+        }
+    }
+
+    // DoubleSorts.lowerBound (strict) or upperBound for the value at keyIndex
+    private static int bound(double[] values, int from, int to, int keyIndex, boolean strict, SortTracer tracer) {
+        double key = values[keyIndex];
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            tracer.compare(mid, keyIndex);
+            if (strict ? values[mid] < key : values[mid] <= key) from = mid + 1;
+            else to = mid;
+        }
+        return from;
+    }
+
+    static void quickSort(double[] values, SortTracer tracer) {
+        quickSort(values, 0, values.length - 1, tracer);
+    }
+
+    private static void quickSort(double[] values, int low, int high, SortTracer tracer) {
+        tracer.enter();
+        while (low < high) {
+            if (high - low < SortEngine.getSmallSortCutoff()) {
+                smallSort(values, low, high + 1, tracer);
+                break;
+            }
+            choosePivotToHigh(values, low, high, tracer);
+            long bounds = partitionThreeWay(values, low, high, tracer);
+            int lessEnd = (int) (bounds >>> 32);
+            int greaterStart = (int) bounds + 1;
+            if (lessEnd - low < high - greaterStart) {
+                quickSort(values, low, lessEnd - 1, tracer);
+                low = greaterStart;
+            } else {
+                quickSort(values, greaterStart, high, tracer);
+                high = lessEnd - 1;
+            }
+        }
+        tracer.exit();
+    }
+
+    static void introSort(double[] values, SortTracer tracer) {
+        introSort(values, 0, values.length - 1, DoubleSorts.introDepthLimit(values.length), tracer);
+    }
+
+    private static void introSort(double[] values, int low, int high, int depthLimit, SortTracer tracer) {
+        tracer.enter();
+        while (high - low >= SortEngine.getSmallSortCutoff()) {
+            if (depthLimit-- == 0) {
+                heapSort(values, low, high + 1, tracer);
+                tracer.exit();
+                return;
+            }
+            choosePivotToHigh(values, low, high, tracer);
+            long bounds = partitionThreeWay(values, low, high, tracer);
+            int lessEnd = (int) (bounds >>> 32);
+            int greaterStart = (int) bounds + 1;
+            if (lessEnd - low < high - greaterStart) {
+                introSort(values, low, lessEnd - 1, depthLimit, tracer);
+                low = greaterStart;
+            } else {
+                introSort(values, greaterStart, high, depthLimit, tracer);
+                high = lessEnd - 1;
+            }
+        }
+        smallSort(values, low, high + 1, tracer);
+        tracer.exit();
+    }
+
+    private static long partitionThreeWay(double[] values, int low, int high, SortTracer tracer) {
+        double pivot = values[high];
+        int lt = low;
+        int i = low;
+        int gt = high - 1;
+        while (i <= gt) {
+            tracer.compare(i, high);
+            double value = values[i];
+            if (value < pivot) {
+                swap(values, lt++, i++, tracer);
+            } else if (value > pivot) {
+                swap(values, i, gt--, tracer);
+            } else {
+                i++;
+            }
+        }
+        swap(values, gt + 1, high, tracer);
+        return ((long) lt << 32) | ((gt + 1) & 0xFFFFFFFFL);
+    }
+
+    private static void medianOfThreeToHigh(double[] values, int low, int high, SortTracer tracer) {
+        int mid = (low + high) >>> 1;
+        if (less(values, mid, low, tracer)) swap(values, mid, low, tracer);
+        if (less(values, high, low, tracer)) swap(values, high, low, tracer);
+        if (less(values, mid, high, tracer)) swap(values, mid, high, tracer);
+    }
+
+    private static void choosePivotToHigh(double[] values, int low, int high, SortTracer tracer) {
+        int size = high - low + 1;
+        if (size <= DoubleSorts.NINTHER_THRESHOLD) {
+            medianOfThreeToHigh(values, low, high, tracer);
+            return;
+        }
+        int eighth = size / 8;
+        int mid = (low + high) >>> 1;
+        int first = median(values, low, low + eighth, low + 2 * eighth, tracer);
+        int middle = median(values, mid - eighth, mid, mid + eighth, tracer);
+        int last = median(values, high - 2 * eighth, high - eighth, high, tracer);
+        swap(values, median(values, first, middle, last, tracer), high, tracer);
+    }
+
+    private static int median(double[] values, int a, int b, int c, SortTracer tracer) {
+        if (less(values, a, b, tracer)) {
+            return less(values, b, c, tracer) ? b : less(values, a, c, tracer) ? c : a;
+        }
+        return less(values, a, c, tracer) ? a : less(values, b, c, tracer) ? c : b;
+    }
+
+    // Mirrors DoubleSorts.heapSort: sift-downs move a hole with single writes and
+    // compare against the held value as if it sat at the hole's index
+    static void heapSort(double[] values, SortTracer tracer) {
+        int n = values.length;
+        if (n <= 1) return;
+        HeapVariant variant = SortEngine.getHeapVariant();
+        int arity = variant.arity();
+        for (int i = (n - 2) / arity; i >= 0; i--) {
+            switch (variant) {
+                case RECURSIVE -> heapify(values, n, i, tracer);
+                case ITERATIVE, BOUNCE -> siftDown(values, 0, n, i, tracer);
+                default -> siftDownArity(values, n, i, arity, tracer);
+            }
+        }
+        for (int i = n - 1; i > 0; i--) {
+            if (variant == HeapVariant.RECURSIVE) {
+                swap(values, 0, i, tracer);
+                heapify(values, i, 0, tracer);
+                continue;
+            }
+            double last = values[i];
+            values[i] = values[0];
+            tracer.write(i, values[i]);
+            if (variant == HeapVariant.BOUNCE) {
+                bounce(values, i, last, tracer);
+            } else {
+                values[0] = last;
+                tracer.write(0, last);
+                if (variant == HeapVariant.ITERATIVE) {
+                    siftDown(values, 0, i, 0, tracer);
+                } else {
+                    siftDownArity(values, i, 0, arity, tracer);
+                }
+            }
+        }
+    }
+
+    private static void siftDownArity(double[] values, int n, int i, int arity, SortTracer tracer) {
+        double value = values[i];
+        int child;
+        while ((child = arity * i + 1) < n) {
+            int largest = child;
+            for (int c = child + 1, last = Math.min(n, child + arity); c < last; c++) {
+                if (less(values, largest, c, tracer)) largest = c;
+            }
+            tracer.compare(largest, i);
+            if (values[largest] <= value) break;
+            values[i] = values[largest];
+            tracer.write(i, values[i]);
+            i = largest;
+        }
+        values[i] = value;
+        tracer.write(i, value);
+    }
+
+    private static void bounce(double[] values, int n, double value, SortTracer tracer) {
+        int i = 0;
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && less(values, child, child + 1, tracer)) child++;
+            values[i] = values[child];
+            tracer.write(i, values[i]);
+            i = child;
+        }
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            tracer.compare(parent, i);
+            if (values[parent] >= value) break;
+            values[i] = values[parent];
+            tracer.write(i, values[i]);
+            i = parent;
+        }
+        values[i] = value;
+        tracer.write(i, value);
+    }
+
+    // The introsort fallback: swaps out the root, then sifts with a hole like the timed code
+    private static void heapSort(double[] values, int from, int to, SortTracer tracer) {
+        int n = to - from;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(values, from, n, i, tracer);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            swap(values, from, from + i, tracer);
+            siftDown(values, from, i, 0, tracer);
+        }
+    }
+
+    private static void siftDown(double[] values, int from, int n, int i, SortTracer tracer) {
+        double value = values[from + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && less(values, from + child, from + child + 1, tracer)) child++;
+            tracer.compare(from + child, from + i);
+            if (values[from + child] <= value) break;
+            values[from + i] = values[from + child];
+            tracer.write(from + i, values[from + i]);
+            i = child;
+        }
+        values[from + i] = value;
+        tracer.write(from + i, value);
+    }
+
+    private static void heapify(double[] values, int n, int i, SortTracer tracer) {
+        int largest = i;
+        int left = 2 * i + 1;
+        int right = 2 * i + 2;
+
+        if (left < n) {
+            tracer.compare(left, largest);
+            if (values[left] > values[largest]) largest = left;
+        }
+        if (right < n) {
+            tracer.compare(right, largest);
+            if (values[right] > values[largest]) largest = right;
+        }
+
+        if (largest != i) {
+            swap(values, i, largest, tracer);
+            tracer.enter();
+            heapify(values, n, largest, tracer);
+            tracer.exit();
+        }
+    }
+
+    // Makes no comparisons; each pass scatters into a buffer by one key byte and
+    // is reported as the write-back of that buffer
+    static void radixSort(double[] values, SortTracer tracer) {
+        int n = values.length;
+        if (n <= 1) return;
+        double[] scratch = new double[n];
+        for (int pass = 0; pass < 8; pass++) {
+            int[] offsets = new int[257];
+            for (double value : values) {
+                offsets[RadixSorts.digit(RadixSorts.toKey(value), pass) + 1]++;
+            }
+            if (offsets[RadixSorts.digit(RadixSorts.toKey(values[0]), pass) + 1] == n) continue;
+            for (int d = 1; d < 257; d++) {
+                offsets[d] += offsets[d - 1];
+            }
+            for (double value : values) {
+                scratch[offsets[RadixSorts.digit(RadixSorts.toKey(value), pass)]++] = value;
+            }
+            for (int i = 0; i < n; i++) {
+                values[i] = scratch[i];
+                tracer.write(i, scratch[i]);
+            }
+        }
+    }
+
+    // values[index] > key, where key is conceptually held at keyIndex
+    private static boolean greater(double[] values, int index, double key, int keyIndex, SortTracer tracer) {
+        tracer.compare(index, keyIndex);
+        return values[index] > key;
+    }
+
+    private static boolean less(double[] values, int i, int j, SortTracer tracer) {
+        tracer.compare(i, j);
+        return values[i] < values[j];
+    }
+
+    private static void swap(double[] values, int i, int j, SortTracer tracer) {
+        double temp = values[i];
+        values[i] = values[j];
+        values[j] = temp;
+        tracer.swap(i, j);
+    }
+}
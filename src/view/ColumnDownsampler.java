@@ -0,0 +1,203 @@
+package view;
+
+import java.util.Arrays;
+
+// Reduces a column to a fixed number of buckets, roughly one per pixel, so the
+// charts draw a constant number of items however long the column is. Results
+// are stored as indexes into the live array and recomputed only for buckets
+// whose values changed since the last refresh (LTTB depends on neighbouring
+// buckets and is recomputed in full whenever anything changed).
+class ColumnDownsampler {
+
+    enum Mode {
+        MIN_MAX, // min and max of every bucket, keeps spikes visible
+        LTTB     // largest-triangle-three-buckets, one point per bucket
+    }
+
+    private double[] values = new double[0];
+    private int buckets = 1000;
+    private Mode mode = Mode.MIN_MAX;
+    private boolean[] dirty = new boolean[0];
+    private boolean anyDirty;
+    private boolean allDirty = true;
+    private int[] indexes = new int[0];
+    private int itemCount;
+
+    void setValues(double[] values) {
+        this.values = values;
+        allDirty = true;
+    }
+
+    double[] getValues() {
+        return values;
+    }
+
+    void setBucketCount(int buckets) {
+        if (buckets != this.buckets) {
+            this.buckets = Math.max(2, buckets);
+            allDirty = true;
+        }
+    }
+
+    void setMode(Mode mode) {
+        if (mode != this.mode) {
+            this.mode = mode;
+            allDirty = true;
+        }
+    }
+
+    // Records that values[index] changed since the last refresh
+    void markChanged(int index) {
+        if (!allDirty && !isIdentity()) {
+            dirty[bucketOf(index)] = true;
+            anyDirty = true;
+        }
+    }
+
+    // Brings the selection up to date; returns whether anything changed
+    boolean refresh() {
+        if (allDirty) {
+            rebuild();
+            return true;
+        }
+        if (!anyDirty) {
+            return isIdentity() && values.length > 0;
+        }
+        if (mode == Mode.LTTB) {
+            selectLargestTriangles();
+        } else {
+            for (int b = 0; b < buckets; b++) {
+                if (dirty[b]) {
+                    selectMinMax(b);
+                    dirty[b] = false;
+                }
+            }
+        }
+        anyDirty = false;
+        return true;
+    }
+
+    int getItemCount() {
+        return itemCount;
+    }
+
+    int getIndex(int item) {
+        return isIdentity() ? item : indexes[item];
+    }
+
+    double getValue(int item) {
+        return values[getIndex(item)];
+    }
+
+    int getBucketCount() {
+        return isIdentity() ? values.length : buckets;
+    }
+
+    // Largest value in the bucket, used where one bar stands for the whole bucket
+    double getBucketMax(int bucket) {
+        if (isIdentity()) {
+            return values[bucket];
+        }
+        if (mode == Mode.MIN_MAX) {
+            return Math.max(values[indexes[2 * bucket]], values[indexes[2 * bucket + 1]]);
+        }
+        return values[indexes[bucket]];
+    }
+
+    // First and one-past-last element index of a bucket
+    int bucketStart(int bucket) {
+        return isIdentity() ? bucket : start(bucket);
+    }
+
+    int bucketEnd(int bucket) {
+        return isIdentity() ? bucket + 1 : start(bucket + 1);
+    }
+
+    // Few enough values to draw them all
+    private boolean isIdentity() {
+        return values.length <= 2L * buckets;
+    }
+
+    private void rebuild() {
+        allDirty = false;
+        anyDirty = false;
+        if (isIdentity()) {
+            itemCount = values.length;
+            return;
+        }
+        dirty = new boolean[buckets];
+        if (mode == Mode.LTTB) {
+            indexes = new int[buckets];
+            itemCount = buckets;
+            selectLargestTriangles();
+        } else {
+            indexes = new int[2 * buckets];
+            itemCount = 2 * buckets;
+            for (int b = 0; b < buckets; b++) {
+                selectMinMax(b);
+            }
+        }
+    }
+
+    private void selectMinMax(int bucket) {
+        int from = start(bucket);
+        int to = start(bucket + 1);
+        int min = from;
+        int max = from;
+        for (int i = from + 1; i < to; i++) {
+            if (values[i] < values[min]) min = i;
+            if (values[i] > values[max]) max = i;
+        }
+        indexes[2 * bucket] = min;
+        indexes[2 * bucket + 1] = max;
+    }
+
+    // First and last points are kept; every bucket in between keeps the point
+    // forming the largest triangle with the previous pick and the next bucket's mean
+    private void selectLargestTriangles() {
+        Arrays.fill(dirty, false);
+        int n = values.length;
+        int middle = buckets - 2;
+        indexes[0] = 0;
+        indexes[buckets - 1] = n - 1;
+        int previous = 0;
+        for (int b = 0; b < middle; b++) {
+            int from = 1 + (int) ((long) b * (n - 2) / middle);
+            int to = 1 + (int) ((long) (b + 1) * (n - 2) / middle);
+            int nextFrom = to;
+            int nextTo = b + 1 < middle ? 1 + (int) ((long) (b + 2) * (n - 2) / middle) : n;
+            double meanX = 0;
+            double meanY = 0;
+            for (int i = nextFrom; i < nextTo; i++) {
+                meanX += i;
+                meanY += values[i];
+            }
+            int nextCount = Math.max(1, nextTo - nextFrom);
+            meanX /= nextCount;
+            meanY /= nextCount;
+
+            double previousY = values[previous];
+            double bestArea = -1;
+            int best = from;
+            for (int i = from; i < to; i++) {
+                double area = Math.abs((previous - meanX) * (values[i] - previousY)
+                        - (previous - i) * (meanY - previousY));
+                if (area > bestArea) {
+                    bestArea = area;
+                    best = i;
+                }
+            }
+            indexes[b + 1] = best;
+            previous = best;
+        }
+    }
+
+    // Bucket holding values[index], the inverse of bucketStart / bucketEnd
+    int bucketOf(int index) {
+        return isIdentity() ? index : (int) ((long) index * buckets / values.length);
+    }
+
+    private int start(int bucket) {
+        return (int) (((long) bucket * values.length + buckets - 1) / buckets);
+    }
+}
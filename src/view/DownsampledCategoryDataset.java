@@ -0,0 +1,116 @@
+package view;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import org.jfree.data.UnknownKeyException;
+import org.jfree.data.category.CategoryDataset;
+import org.jfree.data.general.AbstractDataset;
+
+// One-row category dataset with one bar per ColumnDownsampler bucket. Column
+// keys are the bucket's first element index, created on demand rather than
+// stored as a String per element.
+@SuppressWarnings("rawtypes")
+class DownsampledCategoryDataset extends AbstractDataset implements CategoryDataset {
+
+    private static final String ROW_KEY = "Values";
+
+    private final ColumnDownsampler downsampler = new ColumnDownsampler();
+    private final List<Integer> columnKeys = new AbstractList<Integer>() {
+        @Override
+        public Integer get(int column) {
+            return downsampler.bucketStart(column);
+        }
+
+        @Override
+        public int size() {
+            return downsampler.getBucketCount();
+        }
+    };
+
+    ColumnDownsampler getDownsampler() {
+        return downsampler;
+    }
+
+    // Refreshes changed buckets and redraws once; returns whether it redrew.
+    // Call on the EDT.
+    boolean update() {
+        if (downsampler.refresh()) {
+            fireDatasetChanged();
+            return true;
+        }
+        return false;
+    }
+
+    void setValues(double[] values) {
+        downsampler.setValues(values);
+        update();
+    }
+
+    @Override
+    public Comparable getRowKey(int row) {
+        return ROW_KEY;
+    }
+
+    @Override
+    public int getRowIndex(Comparable key) {
+        return ROW_KEY.equals(key) ? 0 : -1;
+    }
+
+    @Override
+    public List getRowKeys() {
+        return Collections.singletonList(ROW_KEY);
+    }
+
+    @Override
+    public Comparable getColumnKey(int column) {
+        return columnKeys.get(column);
+    }
+
+    @Override
+    public int getColumnIndex(Comparable key) {
+        if (!(key instanceof Integer index)) return -1;
+        int count = downsampler.getBucketCount();
+        // Bucket starts are increasing, so binary search for the exact start
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int start = downsampler.bucketStart(mid);
+            if (start < index) low = mid + 1;
+            else if (start > index) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    @Override
+    public List getColumnKeys() {
+        return columnKeys;
+    }
+
+    @Override
+    public Number getValue(Comparable rowKey, Comparable columnKey) {
+        int row = getRowIndex(rowKey);
+        int column = getColumnIndex(columnKey);
+        if (row < 0 || column < 0) {
+            throw new UnknownKeyException("Unknown key: " + rowKey + ", " + columnKey);
+        }
+        return getValue(row, column);
+    }
+
+    @Override
+    public int getRowCount() {
+        return 1;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return downsampler.getBucketCount();
+    }
+
+    @Override
+    public Number getValue(int row, int column) {
+        return downsampler.getBucketMax(column);
+    }
+}
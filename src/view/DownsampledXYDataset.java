@@ -0,0 +1,65 @@
+package view;
+
+import org.jfree.data.xy.AbstractXYDataset;
+
+// Single-series XY dataset over a ColumnDownsampler: x is the element index, y its value
+class DownsampledXYDataset extends AbstractXYDataset {
+
+    private final String seriesKey;
+    private final ColumnDownsampler downsampler = new ColumnDownsampler();
+
+    DownsampledXYDataset(String seriesKey) {
+        this.seriesKey = seriesKey;
+    }
+
+    ColumnDownsampler getDownsampler() {
+        return downsampler;
+    }
+
+    // Refreshes changed buckets and redraws once; call on the EDT
+    void update() {
+        if (downsampler.refresh()) {
+            fireDatasetChanged();
+        }
+    }
+
+    void setValues(double[] values) {
+        downsampler.setValues(values);
+        update();
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return 1;
+    }
+
+    @Override
+    public Comparable<?> getSeriesKey(int series) {
+        return seriesKey;
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return downsampler.getItemCount();
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return getXValue(series, item);
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        return downsampler.getIndex(item);
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        return getYValue(series, item);
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return downsampler.getValue(item);
+    }
+}
@@ -0,0 +1,105 @@
+package view;
+
+import data.Distribution;
+import data.WorkloadGenerator;
+import java.awt.Component;
+import java.awt.GridLayout;
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Consumer;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingUtilities;
+
+// Settings for a generated column: distribution, size, seed and the
+// distribution's parameter, which follows its default until edited.
+class GenerateDataPanel extends JPanel {
+
+    // The frames load and animate the whole column, so keep it in memory's reach
+    private static final int MAX_SIZE = 100_000_000;
+
+    private final JComboBox<Distribution> distributionSelector = new JComboBox<>(Distribution.values());
+    private final JSpinner sizeSpinner = new JSpinner(new SpinnerNumberModel(1_000_000, 1, MAX_SIZE, 100_000));
+    private final JSpinner seedSpinner = new JSpinner(new SpinnerNumberModel(1, 0, Integer.MAX_VALUE, 1));
+    private final JSpinner parameterSpinner = new JSpinner(new SpinnerNumberModel(0, 0, Integer.MAX_VALUE, 1));
+
+    GenerateDataPanel() {
+        super(new GridLayout(0, 2, 5, 5));
+        add(new JLabel("Distribution"));
+        add(distributionSelector);
+        add(new JLabel("Values"));
+        add(sizeSpinner);
+        add(new JLabel("Seed"));
+        add(seedSpinner);
+        add(new JLabel("Parameter"));
+        add(parameterSpinner);
+        parameterSpinner.setToolTipText("Zipf ranks, sawtooth length, distinct values or perturbed positions");
+        distributionSelector.addActionListener(e -> resetParameter());
+        sizeSpinner.addChangeListener(e -> resetParameter());
+        resetParameter();
+    }
+
+    // Asks for settings, then writes the workload to a temporary CSV on the job
+    // thread and hands it to open on the EDT, so the frames treat it like an
+    // upload and every other feature works on it unchanged
+    static void generate(Component parent, SortJobPanel jobPanel, Consumer<File> open) {
+        GenerateDataPanel panel = new GenerateDataPanel();
+        if (JOptionPane.showConfirmDialog(parent, panel, "Generate Data",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+        WorkloadGenerator generator;
+        try {
+            generator = panel.createGenerator();
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(parent, ex.getMessage());
+            return;
+        }
+        String header = panel.getColumnName();
+
+        jobPanel.submit(job -> {
+            job.setPhase("Generating data");
+            try {
+                File file = File.createTempFile("generated-", ".csv");
+                file.deleteOnExit();
+                generator.writeCsv(file, header);
+                SwingUtilities.invokeLater(() -> {
+                    if (job.isCancelled()) return;
+                    open.accept(file);
+                });
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() ->
+                        JOptionPane.showMessageDialog(parent, "Error writing data: " + ex.getMessage()));
+            }
+        });
+    }
+
+    String getColumnName() {
+        return getDistribution().toString();
+    }
+
+    // Throws IllegalArgumentException for a parameter the distribution rejects
+    WorkloadGenerator createGenerator() {
+        return new WorkloadGenerator(getDistribution(), getValueCount(),
+                ((Number) seedSpinner.getValue()).longValue(),
+                ((Number) parameterSpinner.getValue()).intValue());
+    }
+
+    private Distribution getDistribution() {
+        return (Distribution) distributionSelector.getSelectedItem();
+    }
+
+    private int getValueCount() {
+        return ((Number) sizeSpinner.getValue()).intValue();
+    }
+
+    private void resetParameter() {
+        Distribution distribution = getDistribution();
+        parameterSpinner.setEnabled(distribution.hasParameter());
+        parameterSpinner.setValue(distribution.defaultParameter(getValueCount()));
+    }
+}
@@ -0,0 +1,266 @@
+package view;
+
+import data.ColumnCache;
+import engine.BenchmarkResult;
+import engine.BenchmarkRunner;
+import engine.SortEngine;
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.GridLayout;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.stream.IntStream;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.JSplitPane;
+import javax.swing.JTable;
+import javax.swing.ListSelectionModel;
+import javax.swing.SpinnerNumberModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartPanel;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.plot.PlotOrientation;
+
+// "Compare all": benchmarks the chosen algorithms on identical copies of one
+// column, ranks them by median time, and optionally replays all of them side by
+// side. The replays share one clock, so every panel has applied the same number
+// of events on every frame. The benchmark runs as a job of the frame's own
+// SortJobPanel, which closing the frame cancels.
+class RaceFrame extends JFrame {
+
+    private static final String SEQUENTIAL = "One after another";
+    private static final String CONCURRENT = "All at once";
+
+    private final File file;
+    private final int column;
+    private final JList<String> algorithmList;
+    private final JComboBox<String> modeSelector;
+    private final JSpinner runsSpinner;
+    private final JSpinner warmupSpinner;
+    private final JCheckBox animateBox;
+    private final JSpinner speedSpinner;
+    private final JButton startButton;
+    private final JLabel statusLabel;
+    private final SortJobPanel jobPanel = new SortJobPanel();
+    private final RaceResultsTableModel resultsModel = new RaceResultsTableModel();
+    private final JPanel animationGrid = new JPanel();
+    private final List<SortAnimator> animators = new ArrayList<>();
+    private Timer clock;
+
+    RaceFrame(File file, int column, String columnName) {
+        this.file = file;
+        this.column = column;
+        setTitle("Compare All: " + columnName);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setSize(1200, 800);
+        setLayout(new BorderLayout(10, 10));
+
+        algorithmList = new JList<>(SortEngine.ALGORITHMS);
+        algorithmList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+        // Quadratic sorts can take minutes on a large column, so they start unselected
+        algorithmList.setSelectedIndices(IntStream.range(0, SortEngine.ALGORITHMS.length)
+                .filter(i -> !SortEngine.isQuadratic(SortEngine.ALGORITHMS[i]))
+                .toArray());
+        algorithmList.setVisibleRowCount(4);
+        modeSelector = new JComboBox<>(new String[] {SEQUENTIAL, CONCURRENT});
+        runsSpinner = new JSpinner(new SpinnerNumberModel(5, 1, 1000, 1));
+        warmupSpinner = new JSpinner(new SpinnerNumberModel(1, 0, 100, 1));
+        animateBox = new JCheckBox("Animate", true);
+        speedSpinner = new JSpinner(new SpinnerNumberModel(50, 1, 1_000_000, 10));
+        startButton = new JButton("Start");
+        statusLabel = new JLabel(" ");
+
+        JPanel topPanel = new JPanel(new FlowLayout());
+        topPanel.add(new JLabel("Algorithms:"));
+        topPanel.add(new JScrollPane(algorithmList));
+        topPanel.add(new JLabel("Mode:"));
+        topPanel.add(modeSelector);
+        topPanel.add(new JLabel("Runs:"));
+        topPanel.add(runsSpinner);
+        topPanel.add(new JLabel("Warmup:"));
+        topPanel.add(warmupSpinner);
+        topPanel.add(animateBox);
+        topPanel.add(new JLabel("Steps/frame:"));
+        topPanel.add(speedSpinner);
+        topPanel.add(startButton);
+
+        JTable resultsTable = new JTable(resultsModel);
+        resultsTable.setFillsViewportHeight(true);
+        JScrollPane resultsPane = new JScrollPane(resultsTable);
+        resultsPane.setPreferredSize(new Dimension(400, 400));
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, animationGrid, resultsPane);
+        splitPane.setResizeWeight(0.7);
+
+        add(topPanel, BorderLayout.NORTH);
+        add(splitPane, BorderLayout.CENTER);
+        JPanel bottomPanel = new JPanel(new BorderLayout(5, 5));
+        bottomPanel.add(statusLabel, BorderLayout.NORTH);
+        bottomPanel.add(jobPanel, BorderLayout.CENTER);
+        add(bottomPanel, BorderLayout.SOUTH);
+
+        startButton.addActionListener(e -> startRace());
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                jobPanel.close();
+                stopAnimations();
+            }
+        });
+    }
+
+    private void startRace() {
+        List<String> selected = algorithmList.getSelectedValuesList();
+        if (selected.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Please select at least one algorithm.");
+            return;
+        }
+
+        String[] algorithms = selected.toArray(new String[0]);
+        boolean concurrent = CONCURRENT.equals(modeSelector.getSelectedItem());
+        int runs = ((Number) runsSpinner.getValue()).intValue();
+        int warmups = ((Number) warmupSpinner.getValue()).intValue();
+        boolean animate = animateBox.isSelected();
+
+        stopAnimations();
+        startButton.setEnabled(false);
+        statusLabel.setText("Running " + algorithms.length + " algorithms...");
+
+        jobPanel.submit(job -> {
+            job.setPhase("Loading column");
+            double[] values;
+            try {
+                values = ColumnCache.get(file, column).getValues();
+            } catch (IOException ex) {
+                finishRace("Error reading CSV: " + ex.getMessage());
+                return;
+            }
+            if (values.length == 0) {
+                finishRace("No numeric values found in the selected column.");
+                return;
+            }
+
+            // Every way out re-enables Start; a cancelled race just stops quietly
+            List<BenchmarkResult> results;
+            try {
+                results = BenchmarkRunner.race(algorithms, values, warmups, runs, concurrent);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                finishRace(null);
+                return;
+            } catch (CancellationException ex) {
+                finishRace(null);
+                throw ex;
+            } catch (RuntimeException ex) {
+                finishRace("Error running the race: " + ex.getMessage());
+                return;
+            }
+
+            SwingUtilities.invokeLater(() -> {
+                if (job.isCancelled()) {
+                    statusLabel.setText(" ");
+                    startButton.setEnabled(true);
+                    return;
+                }
+                resultsModel.setResults(results);
+                statusLabel.setText(String.format("%d values, %d runs each (%s), ranked by median",
+                        values.length, runs, concurrent ? "concurrent" : warmups + " warmup"));
+                startButton.setEnabled(true);
+                if (animate) {
+                    startAnimations(algorithms, values);
+                }
+            });
+        });
+    }
+
+    // Resets the controls after a race that produced no results; message may be null
+    private void finishRace(String message) {
+        SwingUtilities.invokeLater(() -> {
+            statusLabel.setText(" ");
+            startButton.setEnabled(true);
+            if (message != null) {
+                JOptionPane.showMessageDialog(this, message);
+            }
+        });
+    }
+
+    // One small scatter plot per algorithm, laid out as square as possible
+    private void startAnimations(String[] algorithms, double[] values) {
+        animationGrid.removeAll();
+        int columns = (int) Math.ceil(Math.sqrt(algorithms.length));
+        animationGrid.setLayout(new GridLayout(0, columns, 5, 5));
+
+        for (String algorithm : algorithms) {
+            DownsampledXYDataset dataset = new DownsampledXYDataset(algorithm);
+            JFreeChart chart = ChartFactory.createScatterPlot(
+                    algorithm, "Index", "Value", dataset, PlotOrientation.VERTICAL, false, false, false);
+            ChartPanel chartPanel = new ChartPanel(chart);
+            chartPanel.addComponentListener(new ComponentAdapter() {
+                @Override
+                public void componentResized(ComponentEvent e) {
+                    dataset.getDownsampler().setBucketCount(chartPanel.getWidth());
+                    dataset.update();
+                }
+            });
+            animationGrid.add(chartPanel);
+
+            SortAnimator animator = new SortAnimator(values,
+                    () -> ((Number) speedSpinner.getValue()).intValue(),
+                    (frameValues, status) -> {
+                        if (dataset.getDownsampler().getValues() != frameValues) {
+                            dataset.setValues(frameValues);
+                        } else {
+                            dataset.update();
+                        }
+                    });
+            animator.setChangeListener(dataset.getDownsampler()::markChanged);
+            animators.add(animator);
+        }
+        animationGrid.revalidate();
+        animationGrid.repaint();
+
+        for (int i = 0; i < algorithms.length; i++) {
+            animators.get(i).startTrace(algorithms[i]);
+        }
+        clock = new Timer(1000 / SortAnimator.FRAMES_PER_SECOND, e -> nextFrame());
+        clock.start();
+    }
+
+    private void nextFrame() {
+        boolean running = false;
+        for (SortAnimator animator : animators) {
+            running |= animator.nextFrame();
+        }
+        if (!running) {
+            clock.stop();
+        }
+    }
+
+    private void stopAnimations() {
+        if (clock != null) {
+            clock.stop();
+        }
+        for (SortAnimator animator : animators) {
+            animator.stop();
+        }
+        animators.clear();
+    }
+}
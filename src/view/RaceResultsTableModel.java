@@ -0,0 +1,52 @@
+package view;
+
+import engine.BenchmarkResult;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.table.AbstractTableModel;
+
+// Ranked race results, one row per algorithm in the order BenchmarkRunner.race returns them
+class RaceResultsTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"Rank", "Algorithm", "Median ms", "p95 ms", "Min ms", "Max ms"};
+
+    private List<BenchmarkResult> results = new ArrayList<>();
+
+    void setResults(List<BenchmarkResult> results) {
+        this.results = results;
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return results.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        BenchmarkResult result = results.get(row);
+        return switch (column) {
+            case 0 -> row + 1;
+            case 1 -> result.getAlgorithm();
+            case 2 -> String.format("%.3f", result.getMedianMillis());
+            case 3 -> String.format("%.3f", result.percentileMillis(95));
+            case 4 -> String.format("%.3f", result.getMinMillis());
+            default -> String.format("%.3f", result.getMaxMillis());
+        };
+    }
+}
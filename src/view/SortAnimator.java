@@ -0,0 +1,158 @@
+package view;
+
+import engine.SortEngine;
+import engine.SortEventBuffer;
+import engine.SortTracer;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import javax.swing.Timer;
+
+// Replays a traced sort at a fixed frame rate. A background thread runs the
+// traced algorithm into a SortEventBuffer; on every frame the EDT applies up to
+// stepsPerFrame events to its own copy of the data and renders once. The timed
+// sort never waits on this, so the animation speed is purely a replay choice.
+class SortAnimator implements SortTracer {
+
+    static final int FRAMES_PER_SECOND = 30;
+    static final int STATUS_UNSORTED = 0;
+    static final int STATUS_COMPARED = 1;
+    static final int STATUS_SORTED = 2;
+
+    interface Renderer {
+        void render(double[] values, int[] status);
+    }
+
+    // Told about every status entry that changes, on the EDT, so views can keep
+    // per-bucket status instead of scanning the array each frame
+    interface StatusListener {
+        void statusChanged(int index, int from, int to);
+    }
+
+    private static final int BUFFER_CAPACITY = 1 << 16;
+
+    private final double[] values;
+    private final int[] status;
+    private final SortEventBuffer buffer = new SortEventBuffer(BUFFER_CAPACITY);
+    private final IntSupplier stepsPerFrame;
+    private final Renderer renderer;
+    private final Timer timer;
+    private IntConsumer changeListener = index -> { };
+    private StatusListener statusListener = (index, from, to) -> { };
+    // Indexes whose status left UNSORTED this frame, the only ones to reset on the next
+    private int[] touched = new int[64];
+    private int touchedCount;
+    private boolean finished;
+
+    SortAnimator(double[] initial, IntSupplier stepsPerFrame, Renderer renderer) {
+        this.values = initial.clone();
+        this.status = new int[initial.length];
+        this.stepsPerFrame = stepsPerFrame;
+        this.renderer = renderer;
+        this.timer = new Timer(1000 / FRAMES_PER_SECOND, e -> nextFrame());
+    }
+
+    // Told about every element whose value changes, before the frame that shows it is rendered
+    void setChangeListener(IntConsumer changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    void setStatusListener(StatusListener statusListener) {
+        this.statusListener = statusListener;
+    }
+
+    // Starts tracing the algorithm on its own copy and replaying it; call on the EDT
+    void start(String algorithm) {
+        startTrace(algorithm);
+        timer.start();
+    }
+
+    // Starts tracing without the frame timer, for callers that advance several
+    // animators from one clock through nextFrame; call on the EDT
+    void startTrace(String algorithm) {
+        double[] traced = values.clone();
+        Thread producer = new Thread(() -> {
+            try {
+                SortEngine.trace(algorithm, traced, buffer);
+            } catch (CancellationException e) {
+                return;
+            }
+            buffer.finish();
+        }, "sort-trace");
+        producer.setDaemon(true);
+        producer.start();
+        renderer.render(values, status);
+    }
+
+    // Stops the replay and lets the tracing thread exit; call on the EDT
+    void stop() {
+        timer.stop();
+        buffer.close();
+    }
+
+    // Applies one frame of events and renders it; returns false once the whole sort has been shown
+    boolean nextFrame() {
+        if (finished) {
+            return false;
+        }
+        // Only last frame's marks are cleared, so a frame costs its own steps, not n
+        for (int k = 0; k < touchedCount; k++) {
+            setStatus(touched[k], STATUS_UNSORTED);
+        }
+        touchedCount = 0;
+        buffer.drain(this, Math.max(1, stepsPerFrame.getAsInt()));
+        if (buffer.isDrained()) {
+            timer.stop();
+            finished = true;
+            for (int i = 0; i < status.length; i++) {
+                setStatus(i, STATUS_SORTED);
+            }
+        }
+        renderer.render(values, status);
+        return !finished;
+    }
+
+    @Override
+    public void compare(int i, int j) {
+        mark(i, STATUS_COMPARED);
+        mark(j, STATUS_COMPARED);
+    }
+
+    @Override
+    public void swap(int i, int j) {
+        double temp = values[i];
+        values[i] = values[j];
+        values[j] = temp;
+        mark(i, STATUS_SORTED);
+        mark(j, STATUS_SORTED);
+        changeListener.accept(i);
+        changeListener.accept(j);
+    }
+
+    @Override
+    public void write(int index, double value) {
+        values[index] = value;
+        mark(index, STATUS_SORTED);
+        changeListener.accept(index);
+    }
+
+    // Sets a status for this frame, remembering the index for the next frame's reset
+    private void mark(int index, int to) {
+        if (status[index] == STATUS_UNSORTED) {
+            if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touchedCount * 2);
+            }
+            touched[touchedCount++] = index;
+        }
+        setStatus(index, to);
+    }
+
+    private void setStatus(int index, int to) {
+        int from = status[index];
+        if (from != to) {
+            status[index] = to;
+            statusListener.statusChanged(index, from, to);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package view;
+
+import engine.SortJob;
+import java.awt.BorderLayout;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+// Runs a frame's sort jobs on one worker thread, with a progress bar and a
+// Cancel button. Submitting a job supersedes the previous one: the running job
+// is cancelled and one still waiting in the queue is dropped, so at most one
+// sort works on the frame's data at any time.
+class SortJobPanel extends JPanel {
+
+    private static final int REFRESH_MILLIS = 100;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), task -> {
+                Thread thread = new Thread(task, "sort-job");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardOldestPolicy());
+    private final JProgressBar progressBar = new JProgressBar(0, 1000);
+    private final JButton cancelButton = new JButton("Cancel");
+    private final Timer timer = new Timer(REFRESH_MILLIS, e -> refresh());
+    private SortJob current;
+
+    SortJobPanel() {
+        super(new BorderLayout(5, 5));
+        progressBar.setStringPainted(true);
+        progressBar.setString("Idle");
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> cancel());
+        add(progressBar, BorderLayout.CENTER);
+        add(cancelButton, BorderLayout.EAST);
+    }
+
+    // Queues work to run with a new job attached to the worker thread. The work
+    // publishes its results itself, and should skip that once the job is
+    // cancelled (checked on the EDT). Call on the EDT.
+    SortJob submit(Consumer<SortJob> work) {
+        if (current != null) {
+            current.cancel();
+        }
+        SortJob job = new SortJob();
+        current = job;
+        cancelButton.setEnabled(true);
+        timer.start();
+        refresh();
+        executor.execute(() -> {
+            try {
+                job.run(() -> work.accept(job));
+            } catch (CancellationException ex) {
+                // Stopped on request; nothing to publish
+            } finally {
+                SwingUtilities.invokeLater(() -> finished(job));
+            }
+        });
+        return job;
+    }
+
+    // Call on the EDT
+    void cancel() {
+        if (current != null) {
+            current.cancel();
+            finished(current);
+        }
+    }
+
+    // Cancels the current job and lets the worker thread exit; the panel takes
+    // no more work afterwards. Call on the EDT when its window closes.
+    void close() {
+        cancel();
+        executor.shutdown();
+    }
+
+    private void finished(SortJob job) {
+        if (job != current) return;
+        current = null;
+        timer.stop();
+        cancelButton.setEnabled(false);
+        progressBar.setIndeterminate(false);
+        progressBar.setValue(0);
+        progressBar.setString(job.isCancelled() ? "Cancelled" : "Done");
+    }
+
+    private void refresh() {
+        SortJob job = current;
+        if (job == null) return;
+        double progress = job.getProgress();
+        progressBar.setIndeterminate(progress < 0);
+        if (progress < 0) {
+            progressBar.setString(job.getPhase() + "...");
+        } else {
+            progressBar.setValue((int) (progress * progressBar.getMaximum()));
+            progressBar.setString(String.format("%s %.0f%%", job.getPhase(), progress * 100));
+        }
+    }
+}
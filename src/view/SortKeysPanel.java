@@ -0,0 +1,110 @@
+package view;
+
+import data.CsvRowSorter;
+import data.SortKey;
+import java.awt.Component;
+import java.awt.GridLayout;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.JComboBox;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.filechooser.FileNameExtensionFilter;
+
+// Key list editor for row sorting: up to MAX_KEYS rows of column, direction
+// and collation. Later keys only break ties of earlier ones.
+class SortKeysPanel extends JPanel {
+
+    private static final int MAX_KEYS = 3;
+    private static final String NONE = "(none)";
+
+    private final List<JComboBox<String>> columnSelectors = new ArrayList<>();
+    private final List<JComboBox<String>> directionSelectors = new ArrayList<>();
+    private final List<JComboBox<String>> collationSelectors = new ArrayList<>();
+
+    SortKeysPanel(String[] headers, int initialColumn) {
+        super(new GridLayout(0, 4, 5, 5));
+        add(new JLabel(""));
+        add(new JLabel("Column"));
+        add(new JLabel("Order"));
+        add(new JLabel("Compare as"));
+        for (int k = 0; k < MAX_KEYS; k++) {
+            JComboBox<String> columnSelector = new JComboBox<>();
+            if (k > 0) {
+                columnSelector.addItem(NONE);
+            }
+            for (String header : headers) {
+                columnSelector.addItem(header);
+            }
+            if (k == 0 && initialColumn >= 0) {
+                columnSelector.setSelectedIndex(initialColumn);
+            }
+            JComboBox<String> directionSelector = new JComboBox<>(new String[] {"Ascending", "Descending"});
+            JComboBox<String> collationSelector = new JComboBox<>(new String[] {"Numeric", "Text"});
+
+            add(new JLabel(k == 0 ? "Sort by" : "Then by"));
+            add(columnSelector);
+            add(directionSelector);
+            add(collationSelector);
+            columnSelectors.add(columnSelector);
+            directionSelectors.add(directionSelector);
+            collationSelectors.add(collationSelector);
+        }
+    }
+
+    // Asks for a key list and a target file, then reorders whole rows of source into it
+    static void sortRows(Component parent, SortJobPanel jobPanel, File source, String[] headers,
+            int initialColumn) {
+        SortKeysPanel keysPanel = new SortKeysPanel(headers, initialColumn);
+        if (JOptionPane.showConfirmDialog(parent, keysPanel, "Sort Rows",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        if (fileChooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File target = fileChooser.getSelectedFile();
+        List<SortKey> keys = keysPanel.getKeys();
+        jobPanel.submit(job -> {
+            job.setPhase("Sorting rows");
+            try {
+                long startTime = System.nanoTime();
+                int rows = CsvRowSorter.sort(source, target, keys);
+                double duration = (System.nanoTime() - startTime) / 1_000_000.0;
+                SwingUtilities.invokeLater(() -> {
+                    if (job.isCancelled()) return;
+                    JOptionPane.showMessageDialog(parent, String.format("Wrote %d rows to %s in %.2f ms",
+                            rows, target.getName(), duration));
+                });
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() ->
+                        JOptionPane.showMessageDialog(parent, "Error sorting rows: " + ex.getMessage()));
+            }
+        });
+    }
+
+    List<SortKey> getKeys() {
+        List<SortKey> keys = new ArrayList<>();
+        for (int k = 0; k < MAX_KEYS; k++) {
+            int selected = columnSelectors.get(k).getSelectedIndex();
+            // Every selector after the first starts with the "(none)" entry
+            int column = k == 0 ? selected : selected - 1;
+            if (column < 0) {
+                continue;
+            }
+            keys.add(new SortKey(column,
+                    directionSelectors.get(k).getSelectedIndex() == 1,
+                    collationSelectors.get(k).getSelectedIndex() == 1));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,46 @@
+package view;
+
+import javax.swing.table.AbstractTableModel;
+
+// Table model reading straight from the sorted primitive array. JTable only
+// asks for visible rows, so formatting cost follows the viewport, not the data.
+class SortedValuesTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"#", "Value"};
+
+    private double[] values = new double[0];
+
+    void setValues(double[] values) {
+        this.values = values;
+        fireTableDataChanged();
+    }
+
+    double[] getValues() {
+        return values;
+    }
+
+    @Override
+    public int getRowCount() {
+        return values.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return column == 0 ? row + 1 : String.format("%.4f", values[row]);
+    }
+}
@@ -4,28 +4,47 @@ import com.formdev.flatlaf.FlatIntelliJLaf;
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
-import java.util.ArrayList;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.io.*;
-import java.util.*;
-import java.util.List;
-import com.opencsv.CSVReader;
-import com.opencsv.exceptions.CsvException;
+import java.util.Arrays;
+import data.ColumnCache;
+import data.ColumnExporter;
+import data.ColumnStats;
+import data.CsvColumnLoader;
+import data.ExternalColumnSorter;
+import data.ExternalSortReport;
+import data.MetricsExporter;
+import engine.Selection;
+import engine.SortEngine;
+import engine.SortMetrics;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.plot.PlotOrientation;
-import org.jfree.data.xy.XYSeries;
-import org.jfree.data.xy.XYSeriesCollection;
 
 public class SortingAnalyzerApp extends JFrame {
+    private static final String TOP_K = "Top K";
+    private static final String BOTTOM_K = "Bottom K";
+    private static final String KTH_SMALLEST = "K-th smallest";
+    private static final String PERCENTILES = "Percentiles";
+
     private JComboBox<String> columnSelector;
     private JComboBox<String> algorithmSelector;
     private JTextArea resultArea;
-    private List<String[]> csvData;
+    private File csvFile;
     private String[] headers;
     private ChartPanel chartPanel;
-    private XYSeries dataSeries;
+    private DownsampledXYDataset dataset;
+    private JComboBox<ColumnDownsampler.Mode> downsamplingSelector;
     private JSplitPane splitPane;
+    private JSpinner speedSpinner;
+    private JCheckBox countsCheckBox;
+    private SortAnimator animator;
+    private final SortJobPanel jobPanel = new SortJobPanel();
+    private SortMetrics lastMetrics;
+    private SortedValuesTableModel sortedValuesModel;
+    private String sortedColumnName;
 
     public SortingAnalyzerApp() {
         setTitle("CSV Sorting Analyzer");
@@ -36,15 +55,19 @@ public class SortingAnalyzerApp extends JFrame {
         // Create components
         JPanel topPanel = new JPanel(new FlowLayout());
         JButton uploadButton = new JButton("Upload CSV");
+        JButton generateButton = new JButton("Generate Data");
         columnSelector = new JComboBox<>();
-        algorithmSelector = new JComboBox<>(new String[]{
-            "Insertion Sort", "Shell Sort", "Merge Sort", "Quick Sort", "Heap Sort"
-        });
+        algorithmSelector = new JComboBox<>(SortEngine.ALGORITHMS);
         JButton sortButton = new JButton("Sort");
+        JButton compareButton = new JButton("Compare All");
+        JButton sortRowsButton = new JButton("Sort Rows");
+        JButton externalSortButton = new JButton("External Sort");
+        JButton queryButton = new JButton("Query");
+        speedSpinner = new JSpinner(new SpinnerNumberModel(50, 1, 1_000_000, 10));
+        countsCheckBox = new JCheckBox("Collect operation counts", true);
 
         // Initialize chart
-        dataSeries = new XYSeries("Data Points");
-        XYSeriesCollection dataset = new XYSeriesCollection(dataSeries);
+        dataset = new DownsampledXYDataset("Data Points");
         JFreeChart chart = ChartFactory.createScatterPlot(
             "Data Visualization",
             "Index",
@@ -57,25 +80,54 @@ public class SortingAnalyzerApp extends JFrame {
         );
         chartPanel = new ChartPanel(chart);
         chartPanel.setPreferredSize(new Dimension(600, 400));
+        // About one bucket per horizontal pixel
+        chartPanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                dataset.getDownsampler().setBucketCount(chartPanel.getWidth());
+                dataset.update();
+            }
+        });
+        downsamplingSelector = new JComboBox<>(ColumnDownsampler.Mode.values());
+        downsamplingSelector.addActionListener(e -> {
+            dataset.getDownsampler().setMode((ColumnDownsampler.Mode) downsamplingSelector.getSelectedItem());
+            dataset.update();
+        });
 
         // Setup result area
         setupResultArea();
-        splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, chartPanel, new JScrollPane(resultArea));
+        splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, chartPanel, createResultPanel());
         splitPane.setResizeWeight(0.5);
 
         // Add components
         topPanel.add(uploadButton);
+        topPanel.add(generateButton);
         topPanel.add(new JLabel("Select Column:"));
         topPanel.add(columnSelector);
         topPanel.add(new JLabel("Select Algorithm:"));
         topPanel.add(algorithmSelector);
         topPanel.add(sortButton);
+        topPanel.add(compareButton);
+        topPanel.add(sortRowsButton);
+        topPanel.add(externalSortButton);
+        topPanel.add(queryButton);
+        topPanel.add(new JLabel("Steps/frame:"));
+        topPanel.add(speedSpinner);
+        topPanel.add(countsCheckBox);
+        topPanel.add(new JLabel("Downsampling:"));
+        topPanel.add(downsamplingSelector);
 
         add(topPanel, BorderLayout.NORTH);
         add(splitPane, BorderLayout.CENTER);
+        add(jobPanel, BorderLayout.SOUTH);
 
         uploadButton.addActionListener(e -> uploadCSV());
+        generateButton.addActionListener(e -> generateData());
         sortButton.addActionListener(e -> performSort());
+        compareButton.addActionListener(e -> openRace());
+        sortRowsButton.addActionListener(e -> sortRows());
+        externalSortButton.addActionListener(e -> externalSort());
+        queryButton.addActionListener(e -> queryColumn());
     }
 
     // Right result area
@@ -85,236 +137,348 @@ public class SortingAnalyzerApp extends JFrame {
         resultArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
     }
 
+    // Summary on top, sorted values below in a table that only formats visible rows
+    private JPanel createResultPanel() {
+        sortedValuesModel = new SortedValuesTableModel();
+        JTable sortedValuesTable = new JTable(sortedValuesModel);
+        sortedValuesTable.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        sortedValuesTable.setFillsViewportHeight(true);
+
+        JButton exportButton = new JButton("Export Sorted Column");
+        exportButton.addActionListener(e -> exportSortedColumn());
+        JButton exportMetricsButton = new JButton("Export Metrics");
+        exportMetricsButton.addActionListener(e -> exportMetrics());
+        JPanel exportPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        exportPanel.add(exportButton);
+        exportPanel.add(exportMetricsButton);
+
+        JPanel summaryPanel = new JPanel(new BorderLayout());
+        summaryPanel.add(resultArea, BorderLayout.CENTER);
+        summaryPanel.add(exportPanel, BorderLayout.SOUTH);
+
+        JPanel resultPanel = new JPanel(new BorderLayout());
+        resultPanel.add(summaryPanel, BorderLayout.NORTH);
+        resultPanel.add(new JScrollPane(sortedValuesTable), BorderLayout.CENTER);
+        return resultPanel;
+    }
+
+    private void exportSortedColumn() {
+        double[] values = sortedValuesModel.getValues();
+        if (values.length == 0) {
+            JOptionPane.showMessageDialog(this, "Please sort a column first.");
+            return;
+        }
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File target = fileChooser.getSelectedFile();
+        String header = sortedColumnName;
+        jobPanel.submit(job -> {
+            job.setPhase("Exporting column");
+            try {
+                ColumnExporter.writeColumn(target, header, values);
+                SwingUtilities.invokeLater(() -> {
+                    if (job.isCancelled()) return;
+                    JOptionPane.showMessageDialog(this, "Exported " + values.length + " values to " + target.getName());
+                });
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() ->
+                    JOptionPane.showMessageDialog(this, "Error writing file: " + ex.getMessage()));
+            }
+        });
+    }
+
     // CSV file uploading
     private void uploadCSV() {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
 
         if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try (CSVReader reader = new CSVReader(new FileReader(fileChooser.getSelectedFile()))) {
-                csvData = reader.readAll();
-                headers = csvData.get(0); 
-                csvData.remove(0);
-
-                columnSelector.removeAllItems();
-                for (int i = 0; i < headers.length; i++) {
-                    columnSelector.addItem(headers[i]);
-                }
+            openCSV(fileChooser.getSelectedFile());
+        }
+    }
 
-                // Clear previous visualization
-                dataSeries.clear();
+    private void openCSV(File file) {
+        try {
+            csvFile = file;
+            headers = CsvColumnLoader.readHeader(csvFile);
 
-            } catch (IOException | CsvException ex) {
-                JOptionPane.showMessageDialog(this, "Error reading CSV: " + ex.getMessage());
+            countsCheckBox.setSelected(SortRunner.countOperationsByDefault(file));
+            columnSelector.removeAllItems();
+            for (int i = 0; i < headers.length; i++) {
+                columnSelector.addItem(headers[i]);
             }
+
+            // Clear previous visualization
+            dataset.setValues(new double[0]);
+
+        } catch (IOException ex) {
+            csvFile = null;
+            JOptionPane.showMessageDialog(this, "Error reading CSV: " + ex.getMessage());
         }
     }
 
-    // Error Handling
-    private boolean isNumeric(String str) {
-        if (str == null || str.trim().isEmpty()) {
-            return false;
-        }
-        try {
-            Double.parseDouble(str.trim());
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
+    private void generateData() {
+        GenerateDataPanel.generate(this, jobPanel, this::openCSV);
     }
 
     private void performSort() {
-        if (csvData == null || csvData.isEmpty()) {
+        if (csvFile == null) {
             JOptionPane.showMessageDialog(this, "Please upload a CSV file first.");
             return;
         }
 
+        File file = csvFile;
         int selectedColumn = columnSelector.getSelectedIndex();
+        String selectedColumnName = (String) columnSelector.getSelectedItem();
         String selectedAlgorithm = (String) algorithmSelector.getSelectedItem();
-
-        List<Double> values = new ArrayList<>();
-        for (String[] row : csvData) {
-            if (row.length > selectedColumn && isNumeric(row[selectedColumn])) {
-                values.add(Double.parseDouble(row[selectedColumn].trim()));
+        boolean countOperations = countsCheckBox.isSelected();
+
+        // Load and sort on the job thread. A new sort replaces one still running,
+        // so only one job touches the chart at a time.
+        jobPanel.submit(job -> {
+            SortRunner.Result result;
+            try {
+                result = SortRunner.run(file, selectedColumn, selectedAlgorithm, countOperations, job);
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() ->
+                        JOptionPane.showMessageDialog(this, "Error reading CSV: " + ex.getMessage()));
+                return;
             }
-        }
-
-        if (values.isEmpty()) {
-            JOptionPane.showMessageDialog(this, "No numeric values found in the selected column.");
-            return;
-        }
-
-        // Initial visualization
-        updateVisualization(values);
-
-        long startTime = System.nanoTime();
-        
-        // Perform sorting in a separate thread
-        new Thread(() -> {
-            switch (selectedAlgorithm) {
-                case "Insertion Sort" -> insertionSortWithVisualization(values);
-                case "Shell Sort" -> shellSortWithVisualization(values);
-                case "Merge Sort" -> mergeSortWithVisualization(values);
-                case "Quick Sort" -> quickSortWithVisualization(values);
-                case "Heap Sort" -> heapSortWithVisualization(values);
+            if (result == null) {
+                SwingUtilities.invokeLater(() ->
+                        JOptionPane.showMessageDialog(this, "No numeric values found in the selected column."));
+                return;
             }
 
-            long endTime = System.nanoTime();
-            double duration = (endTime - startTime) / 1_000_000.0;
-
             SwingUtilities.invokeLater(() -> {
-                StringBuilder result = new StringBuilder();
-                result.append(String.format("Sorting Results:\n"));
-                result.append(String.format("Algorithm: %s\n", selectedAlgorithm));
-                result.append(String.format("Time taken: %.2f ms\n", duration));
-                result.append(String.format("Total numeric values: %d\n", values.size()));
-                result.append("\nAll sorted values:\n");
-
-                for (int i = 0; i < values.size(); i++) {
-                    result.append(String.format("%d. %.4f\n", (i + 1), values.get(i)));
-                    if ((i + 1) % 100 == 0) result.append("\n");
-                }
-
-                resultArea.setText(result.toString());
+                if (job.isCancelled()) return;
+                resultArea.setText(result.toSummary());
+                lastMetrics = result.metrics();
                 resultArea.setCaretPosition(0);
-                updateVisualization(values);
+                sortedColumnName = selectedColumnName;
+                sortedValuesModel.setValues(result.sorted());
+
+                // Replay the algorithm from the original order at the chosen speed
+                startAnimation(selectedAlgorithm, result.original());
             });
-        }).start();
+        });
     }
 
-    private void updateVisualization(List<Double> values) {
-        dataSeries.clear();
-        for (int i = 0; i < values.size(); i++) {
-            dataSeries.add(i, values.get(i));
+    private void openRace() {
+        if (csvFile == null) {
+            JOptionPane.showMessageDialog(this, "Please upload a CSV file first.");
+            return;
         }
+        RaceFrame race = new RaceFrame(csvFile, columnSelector.getSelectedIndex(),
+                (String) columnSelector.getSelectedItem());
+        race.setLocationRelativeTo(this);
+        race.setVisible(true);
     }
 
-    // Sorting algorithms with visualization
-    private void insertionSortWithVisualization(List<Double> values) {
-        for (int i = 1; i < values.size(); i++) {
-            double key = values.get(i);
-            int j = i - 1;
-            while (j >= 0 && values.get(j) > key) {
-                values.set(j + 1, values.get(j));
-                j--;
-            }
-            values.set(j + 1, key);
-            if (i % 10 == 0) visualizationUpdate(values);
+    // Reorders whole rows by a key list and writes them to a new CSV file
+    private void sortRows() {
+        if (csvFile == null) {
+            JOptionPane.showMessageDialog(this, "Please upload a CSV file first.");
+            return;
         }
+        SortKeysPanel.sortRows(this, jobPanel, csvFile, headers, columnSelector.getSelectedIndex());
     }
 
-    private void shellSortWithVisualization(List<Double> values) {
-        int n = values.size();
-        for (int gap = n/2; gap > 0; gap /= 2) {
-            for (int i = gap; i < n; i++) {
-                double temp = values.get(i);
-                int j = i;
-                while (j >= gap && values.get(j - gap) > temp) {
-                    values.set(j, values.get(j - gap));
-                    j -= gap;
-                }
-                values.set(j, temp);
-                if (i % 10 == 0) visualizationUpdate(values);
-            }
+    // Sorts the selected column through disk runs for files larger than memory,
+    // writing the sorted column to a new CSV file
+    private void externalSort() {
+        if (csvFile == null) {
+            JOptionPane.showMessageDialog(this, "Please upload a CSV file first.");
+            return;
         }
-    }
 
-    private void mergeSortWithVisualization(List<Double> values) {
-        if (values.size() <= 1) return;
-        
-        int mid = values.size() / 2;
-        List<Double> left = new ArrayList<>(values.subList(0, mid));
-        List<Double> right = new ArrayList<>(values.subList(mid, values.size()));
-
-        mergeSortWithVisualization(left);
-        mergeSortWithVisualization(right);
-        merge(values, left, right);
-        visualizationUpdate(values);
-    }
+        JSpinner memorySpinner = new JSpinner(new SpinnerNumberModel(
+                (int) (ExternalColumnSorter.DEFAULT_MEMORY_BYTES >> 20), 1, 1 << 20, 16));
+        JSpinner fanInSpinner = new JSpinner(new SpinnerNumberModel(
+                ExternalColumnSorter.DEFAULT_FAN_IN, 2, 4096, 8));
+        JPanel optionsPanel = new JPanel(new GridLayout(0, 2, 5, 5));
+        optionsPanel.add(new JLabel("Memory budget (MB):"));
+        optionsPanel.add(memorySpinner);
+        optionsPanel.add(new JLabel("Merge fan-in:"));
+        optionsPanel.add(fanInSpinner);
+        if (JOptionPane.showConfirmDialog(this, optionsPanel, "External Sort",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
+        }
 
-    private void merge(List<Double> values, List<Double> left, List<Double> right) {
-        int i = 0, j = 0, k = 0;
-        while (i < left.size() && j < right.size()) {
-            if (left.get(i) <= right.get(j)) {
-                values.set(k++, left.get(i++));
-            } else {
-                values.set(k++, right.get(j++));
-            }
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
         }
-        while (i < left.size()) values.set(k++, left.get(i++));
-        while (j < right.size()) values.set(k++, right.get(j++));
-    }
 
-    private void quickSortWithVisualization(List<Double> values) {
-        quickSort(values, 0, values.size() - 1);
+        File source = csvFile;
+        File target = fileChooser.getSelectedFile();
+        int selectedColumn = columnSelector.getSelectedIndex();
+        String selectedAlgorithm = (String) algorithmSelector.getSelectedItem();
+        ExternalColumnSorter sorter = new ExternalColumnSorter(selectedAlgorithm,
+                ((Number) memorySpinner.getValue()).longValue() << 20,
+                ((Number) fanInSpinner.getValue()).intValue());
+        jobPanel.submit(job -> {
+            job.setPhase("External sort");
+            ColumnStats stats = new ColumnStats();
+            try {
+                ExternalSortReport report = sorter.sort(source, selectedColumn, target, stats);
+                SwingUtilities.invokeLater(() -> {
+                    if (job.isCancelled()) return;
+                    resultArea.setText(String.format("External Sort Results:\nAlgorithm: %s\nOutput: %s\n",
+                            selectedAlgorithm, target.getName())
+                            + report.toSummary()
+                            + String.format("Empty cells: %d\nInvalid cells: %d\n",
+                                    stats.getEmpty(), stats.getInvalid()));
+                    resultArea.setCaretPosition(0);
+                });
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() ->
+                    JOptionPane.showMessageDialog(this, "Error sorting file: " + ex.getMessage()));
+            }
+        });
     }
 
-    private void quickSort(List<Double> values, int low, int high) {
-        if (low < high) {
-            int pi = partition(values, low, high);
-            quickSort(values, low, pi - 1);
-            quickSort(values, pi + 1, high);
-            visualizationUpdate(values);
+    // Answers top/bottom-K, k-th smallest and percentile questions without sorting the column
+    private void queryColumn() {
+        if (csvFile == null) {
+            JOptionPane.showMessageDialog(this, "Please upload a CSV file first.");
+            return;
         }
-    }
 
-    private int partition(List<Double> values, int low, int high) {
-        double pivot = values.get(high);
-        int i = low - 1;
-        for (int j = low; j < high; j++) {
-            if (values.get(j) < pivot) {
-                i++;
-                double temp = values.get(i);
-                values.set(i, values.get(j));
-                values.set(j, temp);
-            }
+        JComboBox<String> querySelector = new JComboBox<>(new String[] {TOP_K, BOTTOM_K, KTH_SMALLEST, PERCENTILES});
+        JSpinner kSpinner = new JSpinner(new SpinnerNumberModel(100, 1, Integer.MAX_VALUE, 1));
+        JTextField percentilesField = new JTextField("50, 90, 95, 99");
+        JPanel optionsPanel = new JPanel(new GridLayout(0, 2, 5, 5));
+        optionsPanel.add(new JLabel("Query:"));
+        optionsPanel.add(querySelector);
+        optionsPanel.add(new JLabel("K (1-based for k-th):"));
+        optionsPanel.add(kSpinner);
+        optionsPanel.add(new JLabel("Percentiles:"));
+        optionsPanel.add(percentilesField);
+        if (JOptionPane.showConfirmDialog(this, optionsPanel, "Query Column",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return;
         }
-        double temp = values.get(i + 1);
-        values.set(i + 1, values.get(high));
-        values.set(high, temp);
-        return i + 1;
-    }
 
-    private void heapSortWithVisualization(List<Double> values) {
-        int n = values.size();
-        for (int i = n / 2 - 1; i >= 0; i--) {
-            heapify(values, n, i);
-            visualizationUpdate(values);
+        String query = (String) querySelector.getSelectedItem();
+        int k = ((Number) kSpinner.getValue()).intValue();
+        double[] percentiles;
+        try {
+            percentiles = Arrays.stream(percentilesField.getText().split(","))
+                    .map(String::trim)
+                    .filter(p -> !p.isEmpty())
+                    .mapToDouble(Double::parseDouble)
+                    .toArray();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid percentile list: " + percentilesField.getText());
+            return;
         }
-        for (int i = n - 1; i > 0; i--) {
-            double temp = values.get(0);
-            values.set(0, values.get(i));
-            values.set(i, temp);
-            heapify(values, i, 0);
-            visualizationUpdate(values);
+
+        File file = csvFile;
+        int selectedColumn = columnSelector.getSelectedIndex();
+        String selectedColumnName = (String) columnSelector.getSelectedItem();
+        jobPanel.submit(job -> {
+            job.setPhase("Loading column");
+            double[] values;
+            try {
+                values = ColumnCache.get(file, selectedColumn).getValues();
+            } catch (IOException ex) {
+                SwingUtilities.invokeLater(() ->
+                    JOptionPane.showMessageDialog(this, "Error reading CSV: " + ex.getMessage()));
+                return;
+            }
+            if (values.length == 0) {
+                SwingUtilities.invokeLater(() ->
+                    JOptionPane.showMessageDialog(this, "No numeric values found in the selected column."));
+                return;
+            }
+
+            job.setPhase("Querying");
+            StringBuilder result = new StringBuilder("Query Results:\n");
+            double[] listed;
+            long startTime = System.nanoTime();
+            try {
+                switch (query) {
+                    case TOP_K -> {
+                        listed = Selection.topK(values, k);
+                        result.append(String.format("Top %d of %d values, largest first\n", listed.length, values.length));
+                    }
+                    case BOTTOM_K -> {
+                        listed = Selection.bottomK(values, k);
+                        result.append(String.format("Bottom %d of %d values, smallest first\n", listed.length, values.length));
+                    }
+                    case KTH_SMALLEST -> {
+                        int index = Math.min(k, values.length) - 1;
+                        listed = new double[] {Selection.kthSmallest(values, index)};
+                        result.append(String.format("%d-th smallest of %d values: %s\n", index + 1, values.length, listed[0]));
+                    }
+                    default -> {
+                        listed = Selection.percentiles(values, percentiles);
+                        result.append(String.format("Nearest-rank percentiles of %d values\n", values.length));
+                        for (int p = 0; p < percentiles.length; p++) {
+                            result.append(String.format("p%s: %s\n", percentiles[p], listed[p]));
+                        }
+                    }
+                }
+            } catch (IllegalArgumentException ex) {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, ex.getMessage()));
+                return;
+            }
+            result.append(String.format("Time taken: %.2f ms\n", (System.nanoTime() - startTime) / 1_000_000.0));
+
+            SwingUtilities.invokeLater(() -> {
+                if (job.isCancelled()) return;
+                resultArea.setText(result.toString());
+                resultArea.setCaretPosition(0);
+                sortedColumnName = selectedColumnName;
+                sortedValuesModel.setValues(listed);
+                // The metrics belong to the last sort, not to the values now shown
+                lastMetrics = null;
+            });
+        });
+    }
+
+    private void startAnimation(String algorithm, double[] original) {
+        if (animator != null) {
+            animator.stop();
         }
+        animator = new SortAnimator(original,
+                () -> ((Number) speedSpinner.getValue()).intValue(),
+                (values, status) -> updateVisualization(values));
+        animator.setChangeListener(dataset.getDownsampler()::markChanged);
+        animator.start(algorithm);
     }
 
-    private void heapify(List<Double> values, int n, int i) {
-        int largest = i;
-        int left = 2 * i + 1;
-        int right = 2 * i + 2;
-
-        if (left < n && values.get(left) > values.get(largest))
-            largest = left;
-        if (right < n && values.get(right) > values.get(largest))
-            largest = right;
-
-        if (largest != i) {
-            double swap = values.get(i);
-            values.set(i, values.get(largest));
-            values.set(largest, swap);
-            heapify(values, n, largest);
+    // Only buckets touched since the last frame are recomputed
+    private void updateVisualization(double[] values) {
+        if (dataset.getDownsampler().getValues() != values) {
+            dataset.setValues(values);
+        } else {
+            dataset.update();
         }
     }
 
-    // Visualization Update
-    private void visualizationUpdate(List<Double> values) {
-        try {
-            Thread.sleep(50);
-            SwingUtilities.invokeLater(() -> updateVisualization(values));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    private void exportMetrics() {
+        if (lastMetrics == null) {
+            JOptionPane.showMessageDialog(this, "Please sort a column first.");
+            return;
+        }
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("CSV files", "csv"));
+        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            try {
+                MetricsExporter.append(fileChooser.getSelectedFile(), lastMetrics);
+            } catch (IOException ex) {
+                JOptionPane.showMessageDialog(this, "Error writing file: " + ex.getMessage());
+            }
         }
     }
 
@@ -324,4 +488,4 @@ public class SortingAnalyzerApp extends JFrame {
             new SortingAnalyzerApp().setVisible(true);
         });
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Paint;
+import org.jfree.chart.renderer.category.BarRenderer;
+
+// Bar renderer for a DownsampledCategoryDataset that colours each bar from the
+// animator's status array. A bar standing for a bucket of elements takes the
+// most notable status in it: compared, then sorted, then unsorted. Per-bucket
+// counts of compared and sorted elements follow the animator's status changes,
+// so a bar's colour is read in constant time; the array is only rescanned when
+// it or the bucket layout is replaced.
+class StatusBarRenderer extends BarRenderer implements SortAnimator.StatusListener {
+
+    private static final Color UNSORTED = Color.LIGHT_GRAY;
+    private static final Color COMPARED = Color.YELLOW;
+    private static final Color SORTED = Color.GREEN;
+
+    private final ColumnDownsampler downsampler;
+    private int[] status;
+    private int[] compared = new int[0];
+    private int[] sorted = new int[0];
+    private boolean stale = true;
+
+    StatusBarRenderer(ColumnDownsampler downsampler) {
+        this.downsampler = downsampler;
+    }
+
+    // Uses status for the next drawing without redrawing; call on the EDT
+    void setStatus(int[] status) {
+        if (status != this.status) {
+            this.status = status;
+            stale = true;
+        }
+    }
+
+    // Redraws the chart for a status change alone; call on the EDT
+    void redraw() {
+        fireChangeEvent();
+    }
+
+    @Override
+    public void statusChanged(int index, int from, int to) {
+        if (stale || compared.length != downsampler.getBucketCount()) {
+            // Recounted from the array at the next drawing
+            stale = true;
+            return;
+        }
+        int bucket = downsampler.bucketOf(index);
+        count(bucket, from, -1);
+        count(bucket, to, 1);
+    }
+
+    @Override
+    public Paint getItemPaint(int row, int column) {
+        if (status == null) {
+            return super.getItemPaint(row, column);
+        }
+        if (stale || compared.length != downsampler.getBucketCount()) {
+            recount();
+        }
+        if (compared[column] > 0) return COMPARED;
+        return sorted[column] > 0 ? SORTED : UNSORTED;
+    }
+
+    private void count(int bucket, int status, int delta) {
+        if (status == SortAnimator.STATUS_COMPARED) {
+            compared[bucket] += delta;
+        } else if (status == SortAnimator.STATUS_SORTED) {
+            sorted[bucket] += delta;
+        }
+    }
+
+    private void recount() {
+        int buckets = downsampler.getBucketCount();
+        compared = new int[buckets];
+        sorted = new int[buckets];
+        for (int b = 0; b < buckets; b++) {
+            int end = Math.min(downsampler.bucketEnd(b), status.length);
+            for (int i = downsampler.bucketStart(b); i < end; i++) {
+                count(b, status[i], 1);
+            }
+        }
+        stale = false;
+    }
+}
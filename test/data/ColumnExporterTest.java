@@ -0,0 +1,39 @@
+package data;
+
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ColumnExporterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void headersAndValuesReadBackUnchanged() throws IOException, CsvValidationException {
+        double[] values = {-0.0, 0.1, 1e-300, Double.MAX_VALUE, Double.NaN, Double.NEGATIVE_INFINITY};
+        for (String header : new String[] {"value", "a,b", "\"x\"", "two\nlines", "", " padded "}) {
+            File file = folder.newFile();
+            ColumnExporter.writeColumn(file, header, values);
+            try (CSVReader reader = new CSVReader(new FileReader(file))) {
+                assertArrayEquals(new String[] {header}, reader.readNext());
+            }
+            assertArrayEquals(header, values, CsvColumnLoader.loadColumn(file, 0), 0.0);
+        }
+    }
+
+    @Test
+    public void quotesOnlyHeadersThatNeedIt() throws IOException {
+        assertEquals("value", ColumnExporter.headerCell("value"));
+        assertEquals("\"a,b\"", ColumnExporter.headerCell("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", ColumnExporter.headerCell("say \"hi\""));
+    }
+}
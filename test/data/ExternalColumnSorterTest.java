@@ -0,0 +1,136 @@
+package data;
+
+import engine.SortEngine;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ExternalColumnSorterTest {
+
+    // The smallest budget for merge sort: chunks of 1024 values, so 20,000 values make 20 runs
+    private static final long MEMORY_BYTES = 1024 * 2 * Double.BYTES;
+    private static final int VALUES = 20_000;
+    private static final int RUNS = 20;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File input;
+    private File runDirectory;
+    private double[] expected;
+
+    @Before
+    public void writeInput() throws IOException {
+        input = folder.newFile("input.csv");
+        new WorkloadGenerator(Distribution.GAUSSIAN, VALUES, 12).writeCsv(input, "value");
+        expected = CsvColumnLoader.loadColumn(input, 0);
+        Arrays.sort(expected);
+        runDirectory = folder.newFolder("runs");
+    }
+
+    @Test
+    public void mergesInAsManyPassesAsTheFanInNeeds() throws IOException {
+        for (int fanIn : new int[] {2, 3, 4, 19, 20, 64}) {
+            File target = folder.newFile("sorted-" + fanIn + ".csv");
+            ExternalSortReport report = sorter(SortEngine.MERGE_SORT, fanIn)
+                    .sort(input, 0, target, new ColumnStats());
+            assertEquals(VALUES, report.getValues());
+            assertEquals(RUNS, report.getRuns());
+            assertEquals("fan-in " + fanIn, expectedPasses(RUNS, fanIn), report.getMergePasses());
+            assertArrayEquals("fan-in " + fanIn, expected, CsvColumnLoader.loadColumn(target, 0), 0.0);
+            assertEquals("run files left behind", 0, runDirectory.list().length);
+        }
+    }
+
+    @Test
+    public void radixChunksLeaveRoomForKeysAndTarget() throws IOException {
+        // Radix sort needs two scratch arrays, so its chunks are a third of the budget
+        try {
+            sorter(SortEngine.RADIX_SORT, 64);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // half the budget is not enough for radix sort
+        }
+        File target = folder.newFile("sorted-radix.csv");
+        ExternalColumnSorter sorter = new ExternalColumnSorter(SortEngine.RADIX_SORT, MEMORY_BYTES / 2 * 3, 64);
+        sorter.setTempDirectory(runDirectory);
+        ExternalSortReport report = sorter.sort(input, 0, target, new ColumnStats());
+        assertEquals(RUNS, report.getRuns());
+        assertArrayEquals(expected, CsvColumnLoader.loadColumn(target, 0), 0.0);
+    }
+
+    @Test
+    public void columnThatFitsIsNeverSpilled() throws IOException {
+        File target = folder.newFile("sorted.csv");
+        ExternalColumnSorter sorter = new ExternalColumnSorter(SortEngine.RADIX_SORT, 1L << 20, 4);
+        sorter.setTempDirectory(runDirectory);
+        ExternalSortReport report = sorter.sort(input, 0, target, new ColumnStats());
+        assertEquals(0, report.getRuns());
+        assertEquals(0, report.getMergePasses());
+        assertArrayEquals(expected, CsvColumnLoader.loadColumn(target, 0), 0.0);
+    }
+
+    @Test
+    public void headerIsQuotedLikeTheInput() throws IOException {
+        File quoted = folder.newFile("quoted.csv");
+        new WorkloadGenerator(Distribution.GAUSSIAN, VALUES, 12).writeCsv(quoted, "\"a,b\"");
+        File target = folder.newFile("sorted-quoted.csv");
+        sorter(SortEngine.MERGE_SORT, 4).sort(quoted, 0, target, new ColumnStats());
+        assertEquals("\"a,b\"", Files.readAllLines(target.toPath()).get(0));
+        assertArrayEquals(expected, CsvColumnLoader.loadColumn(target, 0), 0.0);
+    }
+
+    @Test
+    public void failedSortDeletesItsRunFiles() throws IOException {
+        // A directory cannot be opened as the output, so the final merge fails
+        File target = folder.newFolder("not-a-file");
+        try {
+            sorter(SortEngine.QUICK_SORT, 3).sort(input, 0, target, new ColumnStats());
+            fail();
+        } catch (IOException expected) {
+            // reported to the caller
+        }
+        assertEquals(0, runDirectory.list().length);
+    }
+
+    @Test
+    public void rejectsBadSettings() {
+        try {
+            new ExternalColumnSorter(SortEngine.MERGE_SORT, MEMORY_BYTES, 1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // fan-in below 2
+        }
+        try {
+            new ExternalColumnSorter(SortEngine.MERGE_SORT, 1024, 4);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // budget below one chunk
+        }
+    }
+
+    private ExternalColumnSorter sorter(String algorithm, int fanIn) {
+        ExternalColumnSorter sorter = new ExternalColumnSorter(algorithm, MEMORY_BYTES, fanIn);
+        sorter.setTempDirectory(runDirectory);
+        return sorter;
+    }
+
+    // Intermediate passes until at most fanIn runs remain, then the final merge
+    private static int expectedPasses(int runs, int fanIn) {
+        int passes = 1;
+        while (runs > fanIn) {
+            runs = (runs + fanIn - 1) / fanIn;
+            passes++;
+        }
+        return passes;
+    }
+}
@@ -0,0 +1,151 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+// The mapped scanner must give the same values and cell counts as the opencsv
+// path, wherever the window boundaries fall and wherever a quote first appears.
+public class MappedCsvScannerTest {
+
+    private static final int[] COLUMNS = {0, 2, 1};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void windowBoundariesDoNotChangeTheResult() throws IOException {
+        StringBuilder csv = new StringBuilder("a,b,c\n");
+        for (int i = 0; i < 200; i++) {
+            switch (i % 7) {
+                case 0 -> csv.append(i).append(",,").append(-i * 0.5).append('\n');
+                case 1 -> csv.append(i).append(",x,").append(i).append("e-3\r\n");
+                case 2 -> csv.append(i).append('\n');
+                case 3 -> csv.append(" ").append(i).append(" ,").append(i).append(".25,NaN\n");
+                default -> csv.append(i).append(',').append(i * 3).append(',').append(i % 2 == 0 ? "" : "bad").append('\n');
+            }
+        }
+        csv.append("999,1,2");
+        File file = write(csv.toString());
+
+        ColumnStats[] expectedStats = stats();
+        double[][] expected = loadWithOpenCsv(file, expectedStats);
+        for (long window = longestRecord(csv.toString()); window <= csv.length() + 1; window++) {
+            ColumnStats[] stats = stats();
+            double[][] actual = MappedCsvScanner.loadColumns(file, stats, COLUMNS, window);
+            assertSameColumns("window " + window, expected, expectedStats, actual, stats);
+        }
+    }
+
+    @Test
+    public void quotedFieldsFallBackToOpenCsv() throws IOException {
+        StringBuilder csv = new StringBuilder("a,b,c\n");
+        for (int i = 0; i < 50; i++) {
+            csv.append(i).append(',').append(i * 2).append(',').append(i * 3).append('\n');
+        }
+        // The record with the first quote already had its first field parsed
+        csv.append("7.5,\"1,5\",\"multi\nline\"\n");
+        for (int i = 0; i < 20; i++) {
+            csv.append(i).append(",\"").append(i).append("\",").append(-i).append('\n');
+        }
+        File file = write(csv.toString());
+
+        ColumnStats[] expectedStats = stats();
+        double[][] expected = loadWithOpenCsv(file, expectedStats);
+        for (long window : new long[] {longestRecord(csv.toString()), 64, 100, 257, 1 << 20}) {
+            ColumnStats[] stats = stats();
+            double[][] actual = MappedCsvScanner.loadColumns(file, stats, COLUMNS, window);
+            assertSameColumns("window " + window, expected, expectedStats, actual, stats);
+        }
+    }
+
+    @Test
+    public void quoteInTheHeaderFallsBackImmediately() throws IOException {
+        File file = write("\"a\",b\n1,2\n3,4\n");
+        ColumnStats[] stats = {new ColumnStats(), new ColumnStats()};
+        double[][] actual = MappedCsvScanner.loadColumns(file, stats, 0, 1);
+        assertArrayEquals(new double[] {1, 3}, actual[0], 0.0);
+        assertArrayEquals(new double[] {2, 4}, actual[1], 0.0);
+    }
+
+    @Test
+    public void skipsUtf8ByteOrderMark() throws IOException {
+        File file = folder.newFile();
+        byte[] text = "v\n1\n2\n".getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[text.length + 3];
+        bytes[0] = (byte) 0xEF;
+        bytes[1] = (byte) 0xBB;
+        bytes[2] = (byte) 0xBF;
+        System.arraycopy(text, 0, bytes, 3, text.length);
+        Files.write(file.toPath(), bytes);
+        double[][] actual = MappedCsvScanner.loadColumns(file, new ColumnStats[] {new ColumnStats()}, 0);
+        assertArrayEquals(new double[] {1, 2}, actual[0], 0.0);
+    }
+
+    @Test
+    public void recordLongerThanTheWindowIsReported() throws IOException {
+        File file = write("a\n12345678901234567890\n1\n");
+        try {
+            MappedCsvScanner.loadColumns(file, new ColumnStats[] {new ColumnStats()}, new int[] {0}, 8);
+            fail();
+        } catch (IOException expected) {
+            // no newline inside the window
+        }
+    }
+
+    private File write(String text) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static double[][] loadWithOpenCsv(File file, ColumnStats[] stats) throws IOException {
+        long threshold = CsvColumnLoader.getMappedThreshold();
+        CsvColumnLoader.setMappedThreshold(Long.MAX_VALUE);
+        try {
+            return CsvColumnLoader.loadColumns(file, stats, COLUMNS);
+        } finally {
+            CsvColumnLoader.setMappedThreshold(threshold);
+        }
+    }
+
+    private static ColumnStats[] stats() {
+        ColumnStats[] stats = new ColumnStats[COLUMNS.length];
+        for (int c = 0; c < stats.length; c++) {
+            stats[c] = new ColumnStats();
+        }
+        return stats;
+    }
+
+    // Smallest window that holds every record with its line break, plus one
+    private static long longestRecord(String text) {
+        int longest = 0;
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                longest = Math.max(longest, i + 1 - start);
+                start = i + 1;
+            }
+        }
+        return Math.max(longest, text.length() - start) + 1;
+    }
+
+    private static void assertSameColumns(String message, double[][] expected, ColumnStats[] expectedStats,
+            double[][] actual, ColumnStats[] actualStats) {
+        for (int c = 0; c < expected.length; c++) {
+            assertArrayEquals(message + ", column " + COLUMNS[c], expected[c], actual[c], 0.0);
+            assertEquals(message, expectedStats[c].getNumeric(), actualStats[c].getNumeric());
+            assertEquals(message, expectedStats[c].getEmpty(), actualStats[c].getEmpty());
+            assertEquals(message, expectedStats[c].getInvalid(), actualStats[c].getInvalid());
+            assertEquals(message, expectedStats[c].getTotal(), actualStats[c].getTotal());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package data;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+// Every accepted literal must give exactly the bits Double.parseDouble gives,
+// through both the String and the mapped-byte entry points.
+public class NumberParserTest {
+
+    private static final String[] VALID = {
+        "0", "-0", "+0", "0.0", "-0.0", "1", "-1", "+1", "+.5", "-.5", "5.", "3.14159",
+        "1e10", "1E10", "1e+10", "1e-10", "-2.5e3", "1.5E-7", "6.02214076e23", "1e22", "1e23",
+        "1e-22", "1e-23", "1e308", "1e309", "1e-324", "4.9e-324", "2.2250738585072014E-308",
+        "9007199254740993", "12345678901234567890", "0.12345678901234567890123",
+        "123456789012345678901234567890e-10", "0.000000000000000000000000000001",
+        "00000000000000000000123.5", "1.7976931348623157e308",
+        "NaN", "-NaN", "Infinity", "-Infinity", "+Infinity", "0x1p3", "1.5d", "2f",
+        "  42  ", "\t-7.25\t"
+    };
+
+    private static final String[] INVALID = {
+        "abc", "1e", "1e+", "-", "+", ".", "1.2.3", "1,5", "--1", "e5", "1 2", "0x", "Inf"
+    };
+
+    @Test
+    public void matchesParseDoubleOnValidLiterals() {
+        for (String literal : VALID) {
+            assertParsesLikeJava(literal);
+        }
+    }
+
+    @Test
+    public void matchesParseDoubleOnRandomDecimals() {
+        SplittableRandom random = new SplittableRandom(9);
+        for (int i = 0; i < 20_000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(value)) continue;
+            assertParsesLikeJava(Double.toString(value));
+            assertParsesLikeJava(String.format(Locale.ROOT, "%.17g", random.nextDouble() * 1e6));
+        }
+    }
+
+    @Test
+    public void rejectsMalformedInput() {
+        NumberParser parser = new NumberParser();
+        for (String literal : INVALID) {
+            assertFalse(literal, parser.parse(literal));
+            assertFalse(literal, parser.wasEmpty());
+            assertFalse(literal, parser.parse(bytes(literal), 0, literal.length()));
+        }
+    }
+
+    @Test
+    public void reportsEmptyCells() {
+        NumberParser parser = new NumberParser();
+        assertFalse(parser.parse((CharSequence) null));
+        assertTrue(parser.wasEmpty());
+        assertFalse(parser.parse("   "));
+        assertTrue(parser.wasEmpty());
+        assertFalse(parser.parse(bytes(""), 0, 0));
+        assertTrue(parser.wasEmpty());
+    }
+
+    @Test
+    public void parsesRangesInsideLargerText() {
+        NumberParser parser = new NumberParser();
+        String row = "x,12.5,-3e2,y";
+        assertTrue(parser.parse(row, 2, 6));
+        assertEquals(12.5, parser.value(), 0.0);
+        assertTrue(parser.parse(bytes(row), 7, 11));
+        assertEquals(-300, parser.value(), 0.0);
+    }
+
+    private static void assertParsesLikeJava(String literal) {
+        double expected = Double.parseDouble(literal);
+        NumberParser parser = new NumberParser();
+        assertTrue(literal, parser.parse(literal));
+        assertEquals(literal, Double.doubleToLongBits(expected), Double.doubleToLongBits(parser.value()));
+        assertTrue(literal, parser.parse(bytes(literal), 0, literal.length()));
+        assertEquals(literal, Double.doubleToLongBits(expected), Double.doubleToLongBits(parser.value()));
+    }
+
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
@@ -0,0 +1,113 @@
+package data;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+// A seed must give one sequence whether it is generated in one array, in
+// uneven chunks, or streamed to a CSV or binary file.
+public class WorkloadGeneratorTest {
+
+    private static final int SIZE = 150_000;
+    private static final long SEED = 7;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void chunksGiveTheSameSequenceAsOneArray() {
+        for (Distribution distribution : Distribution.values()) {
+            double[] expected = WorkloadGenerator.generate(distribution, SIZE, SEED);
+            WorkloadGenerator generator = new WorkloadGenerator(distribution, SIZE, SEED);
+            double[] actual = new double[SIZE];
+            double[] chunk = new double[1000 + distribution.ordinal()];
+            int filled = 0;
+            int count;
+            while ((count = generator.next(chunk)) > 0) {
+                System.arraycopy(chunk, 0, actual, filled, count);
+                filled += count;
+            }
+            assertEquals(distribution.toString(), SIZE, filled);
+            assertArrayEquals(distribution.toString(), expected, actual, 0.0);
+        }
+    }
+
+    @Test
+    public void filesHoldTheGeneratedValues() throws IOException {
+        for (Distribution distribution : Distribution.values()) {
+            double[] expected = WorkloadGenerator.generate(distribution, SIZE, SEED);
+
+            File csv = folder.newFile();
+            new WorkloadGenerator(distribution, SIZE, SEED).writeCsv(csv, "value");
+            assertArrayEquals(distribution.toString(), expected, CsvColumnLoader.loadColumn(csv, 0), 0.0);
+
+            File binary = folder.newFile();
+            new WorkloadGenerator(distribution, SIZE, SEED).writeBinary(binary);
+            assertEquals(SIZE * (long) Double.BYTES, binary.length());
+            double[] actual = new double[SIZE];
+            try (DataInputStream in = new DataInputStream(new FileInputStream(binary))) {
+                for (int i = 0; i < SIZE; i++) {
+                    actual[i] = in.readDouble();
+                }
+            }
+            assertArrayEquals(distribution.toString(), expected, actual, 0.0);
+        }
+    }
+
+    @Test
+    public void parametersShapeTheValues() {
+        double[] fewUnique = new WorkloadGenerator(Distribution.FEW_UNIQUE, SIZE, SEED, 5).generate();
+        assertEquals(5, Arrays.stream(fewUnique).distinct().count());
+
+        double[] sawtooth = new WorkloadGenerator(Distribution.SAWTOOTH, SIZE, SEED, 10).generate();
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(i % 10, sawtooth[i], 0.0);
+        }
+
+        double[] zipf = new WorkloadGenerator(Distribution.ZIPF, SIZE, SEED, 100).generate();
+        assertTrue(Arrays.stream(zipf).allMatch(rank -> rank >= 1 && rank <= 100));
+        // Rank 1 carries the largest weight
+        long ones = Arrays.stream(zipf).filter(rank -> rank == 1).count();
+        long twos = Arrays.stream(zipf).filter(rank -> rank == 2).count();
+        assertTrue(ones > twos);
+
+        double[] perturbed = new WorkloadGenerator(Distribution.PERTURBED, SIZE, SEED, 10).generate();
+        long moved = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (perturbed[i] != i) moved++;
+        }
+        assertTrue(moved > 0 && moved <= 10);
+    }
+
+    @Test
+    public void rejectsBadSettings() {
+        try {
+            new WorkloadGenerator(Distribution.UNIFORM, -1, SEED);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // negative size
+        }
+        try {
+            new WorkloadGenerator(Distribution.FEW_UNIQUE, SIZE, SEED, 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // no distinct values
+        }
+        try {
+            new WorkloadGenerator(Distribution.PERTURBED, 10, SEED, 11);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // more perturbations than values
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DoubleSortsTest {
+
+    @Test
+    public void introSortFallsBackToHeapSort() {
+        double[] random = new SplittableRandom(1).doubles(5000).toArray();
+        double[] expected = random.clone();
+        Arrays.sort(expected);
+        // Depth 0 heap sorts the whole range at once; small depths mix both
+        for (int depthLimit = 0; depthLimit <= 3; depthLimit++) {
+            double[] values = random.clone();
+            DoubleSorts.introSort(values, 0, values.length - 1, depthLimit, null);
+            assertArrayEquals("depth " + depthLimit, expected, values, 0.0);
+        }
+    }
+
+    @Test
+    public void heapSortRangeLeavesTheRestAlone() {
+        double[] values = {9, 8, 5, 3, 7, 1, 4, 0, -1};
+        DoubleSorts.heapSort(values, 2, 7);
+        assertArrayEquals(new double[] {9, 8, 1, 3, 4, 5, 7, 0, -1}, values, 0.0);
+    }
+
+    @Test
+    public void threeWayPartitionGroupsDuplicates() {
+        SplittableRandom random = new SplittableRandom(2);
+        double[] values = new double[10_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(3);
+        }
+        values[values.length - 1] = 1;
+        long bounds = DoubleSorts.partitionThreeWay(values, 0, values.length - 1);
+        int lessEnd = (int) (bounds >>> 32);
+        int equalEnd = (int) bounds;
+        for (int i = 0; i < values.length; i++) {
+            double expected = i < lessEnd ? 0 : i <= equalEnd ? 1 : 2;
+            assertEquals("index " + i, expected, values[i], 0.0);
+        }
+    }
+
+    @Test
+    public void quickAndIntroSortHandleManyDuplicates() {
+        SplittableRandom random = new SplittableRandom(3);
+        double[] values = new double[200_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(4);
+        }
+        double[] expected = values.clone();
+        Arrays.sort(expected);
+        double[] quick = values.clone();
+        DoubleSorts.quickSort(quick);
+        assertArrayEquals(expected, quick, 0.0);
+        double[] intro = values.clone();
+        DoubleSorts.introSort(intro);
+        assertArrayEquals(expected, intro, 0.0);
+
+        double[] constant = new double[200_000];
+        Arrays.fill(constant, 5);
+        DoubleSorts.quickSort(constant);
+        assertTrue(SortEngine.isSorted(constant));
+    }
+
+    @Test
+    public void naturalMergeSortReversesDescendingRuns() {
+        double[] descending = new double[10_000];
+        for (int i = 0; i < descending.length; i++) {
+            descending[i] = descending.length - i;
+        }
+        assertSortsLikeArraysSort(descending);
+
+        // Alternating descending and ascending runs of uneven lengths
+        double[] mixed = new double[10_000];
+        SplittableRandom random = new SplittableRandom(4);
+        for (int from = 0; from < mixed.length; ) {
+            int to = Math.min(mixed.length, from + 1 + random.nextInt(500));
+            double start = random.nextDouble() * 1000;
+            boolean down = random.nextBoolean();
+            for (int i = from; i < to; i++) {
+                mixed[i] = down ? start - (i - from) : start + (i - from);
+            }
+            from = to;
+        }
+        assertSortsLikeArraysSort(mixed);
+
+        // Equal neighbours end a strictly descending run instead of being reversed
+        assertSortsLikeArraysSort(new double[] {5, 4, 4, 3, 2, 2, 2, 1, 0, 0, -1});
+    }
+
+    private static void assertSortsLikeArraysSort(double[] values) {
+        double[] expected = values.clone();
+        Arrays.sort(expected);
+        DoubleSorts.naturalMergeSort(values);
+        assertArrayEquals(expected, values, 0.0);
+    }
+}
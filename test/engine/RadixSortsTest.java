@@ -0,0 +1,86 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RadixSortsTest {
+
+    private static final double[] ORDERED = {
+        Double.NEGATIVE_INFINITY, -Double.MAX_VALUE, -1e300, -2.5, -1, -Double.MIN_NORMAL,
+        -Double.MIN_VALUE, -0.0, 0.0, Double.MIN_VALUE, Double.MIN_NORMAL, 1, 2.5, 1e300,
+        Double.MAX_VALUE, Double.POSITIVE_INFINITY, Double.NaN
+    };
+
+    @Test
+    public void keysFollowArraysSortOrder() {
+        for (int i = 1; i < ORDERED.length; i++) {
+            assertTrue(ORDERED[i - 1] + " before " + ORDERED[i],
+                    Long.compareUnsigned(RadixSorts.toKey(ORDERED[i - 1]), RadixSorts.toKey(ORDERED[i])) < 0);
+        }
+    }
+
+    @Test
+    public void keysRoundTrip() {
+        for (double value : ORDERED) {
+            assertEquals(Double.doubleToLongBits(value),
+                    Double.doubleToLongBits(RadixSorts.fromKey(RadixSorts.toKey(value))));
+        }
+    }
+
+    @Test
+    public void nanSortsLastAndNegativeZeroBeforeZero() {
+        double[] values = {0.0, Double.NaN, -0.0, 3, -7.5, Double.NaN, 0.0, -0.0, Double.NEGATIVE_INFINITY};
+        double[] expected = values.clone();
+        Arrays.sort(expected);
+        RadixSorts.sort(values);
+        assertArrayEquals(bits(expected), bits(values));
+        assertTrue(Double.isNaN(values[values.length - 1]));
+    }
+
+    @Test
+    public void sortsNegativeDoublesAndLongs() {
+        SplittableRandom random = new SplittableRandom(7);
+        double[] doubles = random.doubles(5000, -1e6, 1e6).toArray();
+        long[] longs = random.longs(5000, Long.MIN_VALUE, 0).toArray();
+        int[] ints = random.ints(5000, Integer.MIN_VALUE, 0).toArray();
+        double[] expectedDoubles = doubles.clone();
+        Arrays.sort(expectedDoubles);
+        long[] expectedLongs = longs.clone();
+        Arrays.sort(expectedLongs);
+        int[] expectedInts = ints.clone();
+        Arrays.sort(expectedInts);
+
+        RadixSorts.sort(doubles);
+        RadixSorts.sort(longs);
+        RadixSorts.sort(ints);
+        assertArrayEquals(expectedDoubles, doubles, 0.0);
+        assertArrayEquals(expectedLongs, longs);
+        assertArrayEquals(expectedInts, ints);
+    }
+
+    @Test
+    public void parallelPathMatchesArraysSort() {
+        SplittableRandom random = new SplittableRandom(11);
+        double[] values = random.doubles(RadixSorts.PARALLEL_THRESHOLD + 1000, -1, 1).toArray();
+        values[3] = -0.0;
+        values[5] = Double.NaN;
+        values[8] = 0.0;
+        double[] expected = values.clone();
+        Arrays.sort(expected);
+        RadixSorts.sort(values);
+        assertArrayEquals(bits(expected), bits(values));
+    }
+
+    private static long[] bits(double[] values) {
+        long[] bits = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bits[i] = Double.doubleToLongBits(values[i]);
+        }
+        return bits;
+    }
+}
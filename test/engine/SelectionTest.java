@@ -0,0 +1,121 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class SelectionTest {
+
+    @Test
+    public void percentilesMatchNearestRankOfSortedCopy() {
+        SplittableRandom random = new SplittableRandom(5);
+        double[] percentiles = {0, 1, 10, 25, 33.3, 50, 50, 75, 90, 95, 99, 99.9, 100};
+        for (int n : new int[] {1, 2, 7, 100, 1001, 100_000}) {
+            double[] values = random.doubles(n).toArray();
+            double[] original = values.clone();
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            double[] result = Selection.percentiles(values, percentiles);
+            for (int p = 0; p < percentiles.length; p++) {
+                assertEquals("p" + percentiles[p] + " of " + n,
+                        sorted[Selection.rank(percentiles[p], n)], result[p], 0.0);
+            }
+            assertArrayEquals("input left untouched", original, values, 0.0);
+        }
+    }
+
+    @Test
+    public void nearestRankOnKnownValues() {
+        double[] values = new double[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 100 - i;
+        }
+        assertArrayEquals(new double[] {1, 50, 90, 100},
+                Selection.percentiles(values, 0, 50, 90, 100), 0.0);
+    }
+
+    @Test
+    public void kthSmallestOnDuplicatesAndAdversarialOrders() {
+        SplittableRandom random = new SplittableRandom(6);
+        double[][] inputs = {
+            random.ints(3000, 0, 5).asDoubleStream().toArray(),
+            ascending(3000),
+            reverse(ascending(3000)),
+            organPipe(3000),
+        };
+        for (double[] values : inputs) {
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            for (int k = 0; k < values.length; k += 97) {
+                assertEquals("k " + k, sorted[k], Selection.kthSmallest(values, k), 0.0);
+            }
+            assertEquals(sorted[values.length - 1], Selection.kthSmallest(values, values.length - 1), 0.0);
+        }
+    }
+
+    @Test
+    public void topAndBottomK() {
+        double[] values = new SplittableRandom(8).doubles(10_000).toArray();
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double[] bottom = Selection.bottomK(values, 25);
+        assertArrayEquals(Arrays.copyOf(sorted, 25), bottom, 0.0);
+        double[] top = Selection.topK(values, 25);
+        for (int i = 0; i < top.length; i++) {
+            assertEquals(sorted[sorted.length - 1 - i], top[i], 0.0);
+        }
+        assertEquals(values.length, Selection.topK(values, values.length + 5).length);
+        assertEquals(0, Selection.bottomK(values, 0).length);
+    }
+
+    @Test
+    public void rejectsOutOfRangeArguments() {
+        try {
+            Selection.kthSmallest(new double[] {1, 2}, 2);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // k is 0-based
+        }
+        try {
+            Selection.percentiles(new double[] {1, 2}, 101);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // percentiles are 0 to 100
+        }
+        try {
+            Selection.topK(new double[] {1, 2}, -1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // k must not be negative
+        }
+    }
+
+    private static double[] ascending(int n) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        return values;
+    }
+
+    private static double[] reverse(double[] values) {
+        for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+            double temp = values[i];
+            values[i] = values[j];
+            values[j] = temp;
+        }
+        return values;
+    }
+
+    private static double[] organPipe(int n) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = Math.min(i, n - 1 - i);
+        }
+        return values;
+    }
+}
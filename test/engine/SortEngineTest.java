@@ -0,0 +1,178 @@
+package engine;
+
+import data.Distribution;
+import data.WorkloadGenerator;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+// Every algorithm against Arrays.sort on every generated distribution, for
+// each element type it supports. Sizes cover the trivial cases, the small-range
+// cutoff and ranges large enough for the parallel modes to split.
+public class SortEngineTest {
+
+    private static final int[] SIZES = {0, 1, 2, 3, 31, 32, 33, 1000, 20_000};
+    // Insertion sorts are quadratic, so they skip the largest size
+    private static final int QUADRATIC_MAX_SIZE = 5000;
+    private static final long SEED = 42;
+
+    private final HeapVariant heapVariant = SortEngine.getHeapVariant();
+
+    @After
+    public void restoreSettings() {
+        SortEngine.setHeapVariant(heapVariant);
+    }
+
+    @Test
+    public void sortsDoublesLikeArraysSort() {
+        for (String algorithm : SortEngine.ALGORITHMS) {
+            for (Distribution distribution : Distribution.values()) {
+                for (int size : sizes(algorithm)) {
+                    double[] values = WorkloadGenerator.generate(distribution, size, SEED);
+                    double[] expected = values.clone();
+                    Arrays.sort(expected);
+                    SortEngine.sort(algorithm, values);
+                    assertArrayEquals(describe(algorithm, distribution, size), expected, values, 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sortsLongsLikeArraysSort() {
+        for (String algorithm : SortEngine.ALGORITHMS) {
+            if (SortEngine.sequentialCounterpart(algorithm) != null) continue;
+            for (Distribution distribution : Distribution.values()) {
+                for (int size : sizes(algorithm)) {
+                    long[] values = toLongs(WorkloadGenerator.generate(distribution, size, SEED));
+                    long[] expected = values.clone();
+                    Arrays.sort(expected);
+                    SortEngine.sort(algorithm, values);
+                    assertArrayEquals(describe(algorithm, distribution, size), expected, values);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sortsIntsLikeArraysSort() {
+        for (String algorithm : SortEngine.ALGORITHMS) {
+            if (SortEngine.sequentialCounterpart(algorithm) != null) continue;
+            for (Distribution distribution : Distribution.values()) {
+                for (int size : sizes(algorithm)) {
+                    int[] values = toInts(WorkloadGenerator.generate(distribution, size, SEED));
+                    int[] expected = values.clone();
+                    Arrays.sort(expected);
+                    SortEngine.sort(algorithm, values);
+                    assertArrayEquals(describe(algorithm, distribution, size), expected, values);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sortsFullRangeLongsAndInts() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        long[] longs = random.longs(5000).toArray();
+        longs[0] = Long.MIN_VALUE;
+        longs[1] = Long.MAX_VALUE;
+        int[] ints = random.ints(5000).toArray();
+        ints[0] = Integer.MIN_VALUE;
+        ints[1] = Integer.MAX_VALUE;
+        long[] expectedLongs = longs.clone();
+        Arrays.sort(expectedLongs);
+        int[] expectedInts = ints.clone();
+        Arrays.sort(expectedInts);
+        for (String algorithm : SortEngine.ALGORITHMS) {
+            if (SortEngine.sequentialCounterpart(algorithm) != null) continue;
+            long[] sortedLongs = longs.clone();
+            SortEngine.sort(algorithm, sortedLongs);
+            assertArrayEquals(algorithm, expectedLongs, sortedLongs);
+            int[] sortedInts = ints.clone();
+            SortEngine.sort(algorithm, sortedInts);
+            assertArrayEquals(algorithm, expectedInts, sortedInts);
+        }
+    }
+
+    @Test
+    public void tracedSortsMatchTimedSorts() {
+        for (String algorithm : SortEngine.ALGORITHMS) {
+            double[] values = WorkloadGenerator.generate(Distribution.FEW_UNIQUE, 3000, SEED);
+            double[] expected = values.clone();
+            Arrays.sort(expected);
+            SortEngine.trace(algorithm, values, new CountingTracer());
+            assertArrayEquals(algorithm, expected, values, 0.0);
+        }
+    }
+
+    @Test
+    public void isSortedTreatsZerosAsEqualAndNaNAsLast() {
+        assertTrue(SortEngine.isSorted(new double[0]));
+        assertTrue(SortEngine.isSorted(new double[] {-1, 0.0, -0.0, 0.0, 2, Double.NaN, Double.NaN}));
+        assertFalse(SortEngine.isSorted(new double[] {1, Double.NaN, 2}));
+        assertFalse(SortEngine.isSorted(new double[] {2, 1}));
+    }
+
+    @Test
+    public void everyHeapVariantSorts() {
+        for (HeapVariant variant : HeapVariant.values()) {
+            SortEngine.setHeapVariant(variant);
+            for (Distribution distribution : Distribution.values()) {
+                double[] values = WorkloadGenerator.generate(distribution, 10_000, SEED);
+                double[] expected = values.clone();
+                Arrays.sort(expected);
+                SortEngine.sort(SortEngine.HEAP_SORT, values);
+                assertArrayEquals(variant + " on " + distribution, expected, values, 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void rejectsUnknownAlgorithms() {
+        try {
+            SortEngine.sort("Bogo Sort", new double[] {2, 1});
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // reported by name
+        }
+        try {
+            SortEngine.sort(SortEngine.PARALLEL_MERGE_SORT, new long[] {2, 1});
+            fail();
+        } catch (IllegalArgumentException expected) {
+            // parallel modes are double[] only
+        }
+    }
+
+    private static int[] sizes(String algorithm) {
+        return SortEngine.isQuadratic(algorithm)
+                ? Arrays.stream(SIZES).filter(size -> size <= QUADRATIC_MAX_SIZE).toArray()
+                : SIZES;
+    }
+
+    // Scaled so fractional distributions keep distinct values, negatives included
+    private static long[] toLongs(double[] values) {
+        long[] result = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (long) (values[i] * 1e9) - 500_000_000L;
+        }
+        return result;
+    }
+
+    private static int[] toInts(double[] values) {
+        int[] result = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (int) (values[i] * 1e6) - 500_000;
+        }
+        return result;
+    }
+
+    private static String describe(String algorithm, Distribution distribution, int size) {
+        return algorithm + " on " + distribution + " x " + size;
+    }
+}